@@ -0,0 +1,74 @@
+#!/bin/bash
+
+# WanderFare Auth Lookup Benchmark
+#
+# Compares the polymorphic User lookup Hibernate generated for UserRepository.findByEmail (users
+# outer-joined to customers and vendors) with the narrow findCredentialsByEmail projection now used
+# by login and the JWT filter.
+#   1. Query cost: both SQL shapes through mysqlslap against the same email.
+#   2. End-to-end: hey against an authenticated endpoint; if APP_PID is set, young GC counts from
+#      jstat before/after give a rough allocation comparison between builds.
+#
+# Usage: ./scripts/auth_benchmark.sh [label]   (uses DB_* env vars, defaults match application.yml)
+# Requires: mysqlslap, hey, jq; jstat (optional)
+
+LABEL="${1:-current}"
+BASE_URL="${BASE_URL:-http://localhost:8080/api}"
+DB_HOST="${DB_HOST:-localhost}"
+DB_NAME="${DB_NAME:-wanderfare}"
+DB_USER="${DB_USER:-wanderfare_user}"
+DB_PASSWORD="${DB_PASSWORD:-wanderfare_password123}"
+EMAIL="${VENDOR_EMAIL:-vendor@example.com}"
+PASSWORD="${VENDOR_PASSWORD:-password}"
+ITERATIONS="${ITERATIONS:-20}"
+QUERIES="${QUERIES:-5000}"
+REQUESTS="${REQUESTS:-20000}"
+CONCURRENCY="${CONCURRENCY:-50}"
+OUT_DIR="load-results"
+
+mkdir -p "$OUT_DIR"
+OUT_FILE="$OUT_DIR/auth-$LABEL.txt"
+
+POLYMORPHIC_SQL="SELECT u.*, c.*, v.* FROM users u LEFT JOIN customers c ON c.user_id = u.id LEFT JOIN vendors v ON v.user_id = u.id WHERE u.email = '$EMAIL'"
+PROJECTION_SQL="SELECT id, email, password, first_name, last_name, role, is_active FROM users WHERE email = '$EMAIL'"
+
+# Errors (bad SQL, auth) go into the results; MYSQL_PWD keeps the password warning out of them
+slap() {
+    MYSQL_PWD="$DB_PASSWORD" mysqlslap -h "$DB_HOST" -u "$DB_USER" --create-schema="$DB_NAME" \
+        --query="$1" --number-of-queries="$QUERIES" --concurrency=1 --iterations="$ITERATIONS" 2>&1
+}
+
+echo "🔐 Auth lookup benchmark label=$LABEL" | tee "$OUT_FILE"
+echo "" | tee -a "$OUT_FILE"
+
+echo "1️⃣ Polymorphic findByEmail shape" | tee -a "$OUT_FILE"
+slap "$POLYMORPHIC_SQL" | tee -a "$OUT_FILE"
+
+echo "2️⃣ findCredentialsByEmail projection" | tee -a "$OUT_FILE"
+slap "$PROJECTION_SQL" | tee -a "$OUT_FILE"
+
+if ! command -v hey &> /dev/null; then
+    echo "⚠️  hey not installed, skipping end-to-end run"
+    exit 0
+fi
+
+TOKEN=$(curl -s -X POST "$BASE_URL/auth/login" \
+  -H "Content-Type: application/json" \
+  -d "{\"email\": \"$EMAIL\", \"password\": \"$PASSWORD\"}" | jq -r '.token')
+
+young_gcs() {
+    [ -n "$APP_PID" ] && jstat -gc "$APP_PID" | awk 'NR == 1 { for (i = 1; i <= NF; i++) if ($i == "YGC") col = i } NR == 2 { print $col }'
+}
+
+GC_BEFORE=$(young_gcs)
+echo "3️⃣ Authenticated requests (JWT filter -> loadUserByUsername)" | tee -a "$OUT_FILE"
+hey -n "$REQUESTS" -c "$CONCURRENCY" -H "Authorization: Bearer $TOKEN" \
+    "$BASE_URL/orders/vendor/my-orders?size=1" | tee -a "$OUT_FILE"
+GC_AFTER=$(young_gcs)
+
+if [ -n "$GC_BEFORE" ] && [ -n "$GC_AFTER" ]; then
+    echo "Young GCs during run: $((GC_AFTER - GC_BEFORE))" | tee -a "$OUT_FILE"
+fi
+
+echo ""
+echo "✅ Results written to $OUT_FILE"
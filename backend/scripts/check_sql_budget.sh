@@ -0,0 +1,73 @@
+#!/bin/bash
+
+# WanderFare SQL Statement Budget Check
+#
+# Calls each endpoint and compares the X-SQL-Statement-Count header against its budget, failing
+# on any regression (typically an N+1 creeping into a DTO mapping). The backend must run with
+# SQL_BUDGET_HEADER=true, as start_local.sh does. Budgets include the JWT user lookup.
+#
+# Usage: ./scripts/check_sql_budget.sh
+# Requires: jq
+
+BASE_URL="${BASE_URL:-http://localhost:8080/api}"
+VENDOR_ID="${VENDOR_ID:-2}"
+MENU_ITEM_ID="${MENU_ITEM_ID:-1}"
+
+FAILURES=0
+
+login() {
+    curl -s -X POST "$BASE_URL/auth/login" \
+      -H "Content-Type: application/json" \
+      -d "{\"email\": \"$1\", \"password\": \"$2\"}" | jq -r '.token'
+}
+
+CUSTOMER_TOKEN=$(login "${CUSTOMER_EMAIL:-customer@example.com}" "${CUSTOMER_PASSWORD:-password}")
+VENDOR_TOKEN=$(login "${VENDOR_EMAIL:-vendor@example.com}" "${VENDOR_PASSWORD:-password}")
+ADMIN_TOKEN=$(login "${ADMIN_EMAIL:-admin@wanderfare.com}" "${ADMIN_PASSWORD:-password}")
+
+# check <budget> <path> [token]
+check() {
+    local budget="$1"
+    local path="$2"
+    local token="$3"
+    local auth=()
+    [ -n "$token" ] && auth=(-H "Authorization: Bearer $token")
+
+    local count
+    count=$(curl -s -o /dev/null -D - "${auth[@]}" "$BASE_URL$path" \
+        | awk -F': ' 'tolower($1) == "x-sql-statement-count" { print $2 }' | tr -d '\r')
+
+    if [ -z "$count" ]; then
+        echo "❌ GET $path: no X-SQL-Statement-Count header (is SQL_BUDGET_HEADER=true?)"
+        FAILURES=$((FAILURES + 1))
+    elif [ "$count" -gt "$budget" ]; then
+        echo "❌ GET $path: $count statements (budget $budget)"
+        FAILURES=$((FAILURES + 1))
+    else
+        echo "✅ GET $path: $count statements (budget $budget)"
+    fi
+}
+
+echo "🧮 Checking SQL statement budgets against $BASE_URL..."
+echo ""
+
+check 3 "/vendors/browse"
+check 3 "/vendors/$VENDOR_ID"
+check 2 "/vendors/menu/vendor/$VENDOR_ID"
+check 2 "/vendors/menu/$MENU_ITEM_ID"
+# Order history still lazily loads each order's items in convertToDto; budget caps that at one
+# query per order on a 10-order page rather than letting it grow further
+check 25 "/orders/customer/my-orders?size=10" "$CUSTOMER_TOKEN"
+check 25 "/orders/vendor/my-orders?size=10" "$VENDOR_TOKEN"
+# Includes the popular-item name lookup, the customer sketch range read and the delivery histogram read
+check 11 "/vendors/analytics/dashboard" "$VENDOR_TOKEN"
+# Four concurrent counters on the dashboard executor (counted via RequestSqlStats.propagate) when
+# the cached snapshot is stale
+check 5 "/admin/dashboard/stats" "$ADMIN_TOKEN"
+
+echo ""
+if [ "$FAILURES" -gt 0 ]; then
+    echo "❌ $FAILURES endpoint(s) over budget"
+    exit 1
+fi
+echo "✅ All endpoints within budget"
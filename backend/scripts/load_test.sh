@@ -0,0 +1,58 @@
+#!/bin/bash
+
+# WanderFare Load Test - compares platform vs virtual thread execution modes
+#
+# Start the backend in the mode under test, then run this script with a label:
+#   mvn spring-boot:run                                             -> ./scripts/load_test.sh platform
+#   VIRTUAL_THREADS_ENABLED=true mvn -Pvirtual-threads spring-boot:run -> ./scripts/load_test.sh virtual
+# Results are written to load-results/<label>.txt so the two runs can be diffed.
+# Requires: hey (https://github.com/rakyll/hey), jq
+
+MODE="${1:-platform}"
+BASE_URL="${BASE_URL:-http://localhost:8080/api}"
+DURATION="${DURATION:-30s}"
+CONCURRENCY="${CONCURRENCY:-200}"
+VENDOR_ID="${VENDOR_ID:-2}"
+MENU_ITEM_ID="${MENU_ITEM_ID:-1}"
+OUT_DIR="load-results"
+
+if ! command -v hey &> /dev/null; then
+    echo "❌ hey is required (go install github.com/rakyll/hey@latest)"
+    exit 1
+fi
+
+mkdir -p "$OUT_DIR"
+OUT_FILE="$OUT_DIR/$MODE.txt"
+
+login() {
+    curl -s -X POST "$BASE_URL/auth/login" \
+      -H "Content-Type: application/json" \
+      -d "{\"email\": \"$1\", \"password\": \"$2\"}" | jq -r '.token'
+}
+
+CUSTOMER_TOKEN=$(login "${CUSTOMER_EMAIL:-customer@example.com}" "${CUSTOMER_PASSWORD:-password}")
+VENDOR_TOKEN=$(login "${VENDOR_EMAIL:-vendor@example.com}" "${VENDOR_PASSWORD:-password}")
+
+echo "🧪 Load test mode=$MODE concurrency=$CONCURRENCY duration=$DURATION" | tee "$OUT_FILE"
+
+# Browse mix: public vendor listing and menu reads
+echo "1️⃣ Browse mix" | tee -a "$OUT_FILE"
+hey -z "$DURATION" -c "$CONCURRENCY" "$BASE_URL/vendors/browse" | tee -a "$OUT_FILE"
+hey -z "$DURATION" -c "$CONCURRENCY" "$BASE_URL/vendors/menu/vendor/$VENDOR_ID" | tee -a "$OUT_FILE"
+
+# Order mix: order placement (write path)
+echo "2️⃣ Order mix" | tee -a "$OUT_FILE"
+hey -z "$DURATION" -c "$CONCURRENCY" -m POST \
+  -H "Authorization: Bearer $CUSTOMER_TOKEN" \
+  -H "Content-Type: application/json" \
+  -d "{\"vendorId\": $VENDOR_ID, \"deliveryAddress\": \"456 Main St\", \"orderItems\": [{\"menuItemId\": $MENU_ITEM_ID, \"quantity\": 2}]}" \
+  "$BASE_URL/orders" | tee -a "$OUT_FILE"
+
+# Analytics mix: vendor dashboard aggregation
+echo "3️⃣ Analytics mix" | tee -a "$OUT_FILE"
+hey -z "$DURATION" -c "$CONCURRENCY" \
+  -H "Authorization: Bearer $VENDOR_TOKEN" \
+  "$BASE_URL/vendors/analytics/dashboard" | tee -a "$OUT_FILE"
+
+echo ""
+echo "✅ Results written to $OUT_FILE"
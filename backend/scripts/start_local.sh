@@ -38,8 +38,9 @@ mvn clean install -q
 echo "🚀 Starting WanderFare Backend..."
 echo "📖 API Documentation: http://localhost:8080/api/swagger-ui.html"
 echo "🔍 Health Check: http://localhost:8080/api/actuator/health"
+echo "🧮 SQL budget headers enabled (X-SQL-Statement-Count, X-SQL-Time-Ms)"
 echo ""
 echo "Press Ctrl+C to stop the application"
 echo ""
 
-mvn spring-boot:run
+SQL_BUDGET_HEADER=true mvn spring-boot:run
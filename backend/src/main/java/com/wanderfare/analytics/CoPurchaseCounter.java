@@ -0,0 +1,116 @@
+package com.wanderfare.analytics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Item-to-item co-occurrence for one vendor's baskets. Items are renumbered densely (0..n-1) so a
+ * pair packs into one long key, and pair counts are built by a fork/join split over the baskets.
+ * Pairs are scored by cosine similarity, count(a, b) / sqrt(baskets(a) * baskets(b)), so items
+ * that are in nearly every order don't crowd out real affinities.
+ */
+public final class CoPurchaseCounter {
+
+    // Baskets counted by a single fork/join leaf
+    private static final int LEAF_BASKETS = 2048;
+
+    private CoPurchaseCounter() {
+    }
+
+    /**
+     * Returns, for each dense item index, the indices of its best co-purchased items (best first),
+     * or null when the item has no pair with at least {@code minSupport} shared baskets. Must be
+     * called from a ForkJoinPool worker for the counting to run in parallel.
+     *
+     * @param baskets        sorted, de-duplicated item indices per order
+     * @param basketsPerItem number of baskets containing each item
+     */
+    public static int[][] topNeighbours(List<int[]> baskets, int[] basketsPerItem, int topN, int minSupport) {
+        LongIntCounterMap pairs = new PairCountTask(baskets, 0, baskets.size()).invoke();
+
+        int itemCount = basketsPerItem.length;
+        int[][] neighbours = new int[itemCount][];
+        double[][] scores = new double[itemCount][];
+        int[] lengths = new int[itemCount];
+        pairs.forEach((key, count) -> {
+            if (count < minSupport) {
+                return;
+            }
+            int a = (int) (key >>> 32);
+            int b = (int) key;
+            double score = count / Math.sqrt((double) basketsPerItem[a] * basketsPerItem[b]);
+            offer(neighbours, scores, lengths, a, b, score, topN);
+            offer(neighbours, scores, lengths, b, a, score, topN);
+        });
+
+        for (int i = 0; i < itemCount; i++) {
+            if (neighbours[i] != null && lengths[i] < topN) {
+                neighbours[i] = Arrays.copyOf(neighbours[i], lengths[i]);
+            }
+        }
+        return neighbours;
+    }
+
+    // Bounded insertion sort: keeps the topN highest scores for the item, best first
+    private static void offer(int[][] neighbours, double[][] scores, int[] lengths,
+                              int item, int other, double score, int topN) {
+        if (neighbours[item] == null) {
+            neighbours[item] = new int[topN];
+            scores[item] = new double[topN];
+        }
+        int length = lengths[item];
+        if (length == topN && score <= scores[item][length - 1]) {
+            return;
+        }
+        int pos = length == topN ? length - 1 : length++;
+        while (pos > 0 && scores[item][pos - 1] < score) {
+            scores[item][pos] = scores[item][pos - 1];
+            neighbours[item][pos] = neighbours[item][pos - 1];
+            pos--;
+        }
+        scores[item][pos] = score;
+        neighbours[item][pos] = other;
+        lengths[item] = length;
+    }
+
+    private static class PairCountTask extends RecursiveTask<LongIntCounterMap> {
+        private final List<int[]> baskets;
+        private final int from;
+        private final int to;
+
+        PairCountTask(List<int[]> baskets, int from, int to) {
+            this.baskets = baskets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected LongIntCounterMap compute() {
+            if (to - from <= LEAF_BASKETS) {
+                LongIntCounterMap counts = new LongIntCounterMap(1024);
+                for (int i = from; i < to; i++) {
+                    int[] basket = baskets.get(i);
+                    for (int x = 0; x < basket.length; x++) {
+                        for (int y = x + 1; y < basket.length; y++) {
+                            // basket is sorted, so basket[y] >= 1 and the key is never 0
+                            counts.increment(((long) basket[x] << 32) | basket[y], 1);
+                        }
+                    }
+                }
+                return counts;
+            }
+            int mid = (from + to) >>> 1;
+            PairCountTask left = new PairCountTask(baskets, from, mid);
+            left.fork();
+            LongIntCounterMap right = new PairCountTask(baskets, mid, to).compute();
+            LongIntCounterMap leftCounts = left.join();
+            if (leftCounts.size() >= right.size()) {
+                leftCounts.addAll(right);
+                return leftCounts;
+            }
+            right.addAll(leftCounts);
+            return right;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.wanderfare.analytics;
+
+/**
+ * Small, allocation-light forecasting helpers for daily demand series.
+ */
+public final class DemandForecast {
+
+    // Smallest spread of log prices (about 1%) that still says something about elasticity
+    private static final double MIN_LOG_PRICE_STDDEV = 0.01;
+
+    private DemandForecast() {
+    }
+
+    /**
+     * Additive Holt-Winters forecast for the next {@code horizon} points. Needs two full seasons to
+     * initialise; shorter series fall back to Holt's linear trend without seasonality. Forecasts
+     * are floored at zero since demand can't be negative.
+     */
+    public static double[] holtWinters(double[] series, int period, double alpha, double beta, double gamma, int horizon) {
+        double[] forecast = new double[horizon];
+        int n = series.length;
+        if (n == 0) {
+            return forecast;
+        }
+        if (n < 2 * period) {
+            return holt(series, alpha, beta, horizon);
+        }
+
+        double level = mean(series, 0, period);
+        double trend = (mean(series, period, 2 * period) - level) / period;
+        double[] season = new double[period];
+        for (int i = 0; i < period; i++) {
+            season[i] = series[i] - level;
+        }
+        for (int t = period; t < n; t++) {
+            double s = season[t % period];
+            double previousLevel = level;
+            level = alpha * (series[t] - s) + (1 - alpha) * (level + trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * trend;
+            season[t % period] = gamma * (series[t] - level) + (1 - gamma) * s;
+        }
+        for (int h = 1; h <= horizon; h++) {
+            forecast[h - 1] = Math.max(0, level + h * trend + season[(n + h - 1) % period]);
+        }
+        return forecast;
+    }
+
+    private static double[] holt(double[] series, double alpha, double beta, int horizon) {
+        double level = series[0];
+        double trend = series.length > 1 ? series[1] - series[0] : 0;
+        for (int t = 1; t < series.length; t++) {
+            double previousLevel = level;
+            level = alpha * series[t] + (1 - alpha) * (level + trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * trend;
+        }
+        double[] forecast = new double[horizon];
+        for (int h = 1; h <= horizon; h++) {
+            forecast[h - 1] = Math.max(0, level + h * trend);
+        }
+        return forecast;
+    }
+
+    /**
+     * Constant price elasticity of demand from a log-log least-squares fit of units on price over
+     * the first {@code count} observations. Returns NaN when there are fewer than
+     * {@code minObservations} points or the price barely moved, since the slope is then noise.
+     */
+    public static double priceElasticity(double[] prices, double[] units, int count, int minObservations) {
+        if (count < minObservations) {
+            return Double.NaN;
+        }
+        double sumX = 0, sumY = 0;
+        for (int i = 0; i < count; i++) {
+            sumX += Math.log(prices[i]);
+            sumY += Math.log(units[i]);
+        }
+        double meanX = sumX / count;
+        double meanY = sumY / count;
+        double sxx = 0, sxy = 0;
+        for (int i = 0; i < count; i++) {
+            double dx = Math.log(prices[i]) - meanX;
+            sxx += dx * dx;
+            sxy += dx * (Math.log(units[i]) - meanY);
+        }
+        if (Math.sqrt(sxx / count) < MIN_LOG_PRICE_STDDEV) {
+            return Double.NaN;
+        }
+        return sxy / sxx;
+    }
+
+    public static double sum(double[] values, int from, int to) {
+        double total = 0;
+        for (int i = from; i < to; i++) {
+            total += values[i];
+        }
+        return total;
+    }
+
+    private static double mean(double[] values, int from, int to) {
+        return sum(values, from, to) / (to - from);
+    }
+}
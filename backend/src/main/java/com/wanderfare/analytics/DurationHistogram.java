@@ -0,0 +1,115 @@
+package com.wanderfare.analytics;
+
+import org.HdrHistogram.IntCountsHistogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+
+/**
+ * Signed durations in seconds (up to 7 days either way) on a pair of HdrHistograms: one for values
+ * >= 0 and one for the magnitude of negative values, so an "early" ETA error keeps the same 1%
+ * relative precision as a late one. Histograms add exactly, so any set of days can be merged and
+ * percentiles read off the sum. Not thread-safe.
+ */
+public class DurationHistogram {
+
+    private static final long MAX_SECONDS = 7L * 24 * 3600;
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final IntCountsHistogram nonNegative;
+    private final IntCountsHistogram negative;
+
+    public DurationHistogram() {
+        this(new IntCountsHistogram(MAX_SECONDS, SIGNIFICANT_DIGITS), new IntCountsHistogram(MAX_SECONDS, SIGNIFICANT_DIGITS));
+    }
+
+    private DurationHistogram(IntCountsHistogram nonNegative, IntCountsHistogram negative) {
+        this.nonNegative = nonNegative;
+        this.negative = negative;
+    }
+
+    public void record(long seconds) {
+        if (seconds >= 0) {
+            nonNegative.recordValue(Math.min(seconds, MAX_SECONDS));
+        } else {
+            negative.recordValue(Math.min(-seconds, MAX_SECONDS));
+        }
+    }
+
+    public void add(DurationHistogram other) {
+        nonNegative.add(other.nonNegative);
+        negative.add(other.negative);
+    }
+
+    public long getTotalCount() {
+        return nonNegative.getTotalCount() + negative.getTotalCount();
+    }
+
+    /**
+     * Value at the given percentile (0-100) of the signed distribution. Negative values sort first,
+     * largest magnitude first, so low ranks are read from the top of the negative histogram.
+     */
+    public long valueAtPercentile(double percentile) {
+        long negatives = negative.getTotalCount();
+        long total = negatives + nonNegative.getTotalCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        if (rank <= negatives) {
+            return -negative.getValueAtPercentile(100.0 * (negatives - rank + 1) / negatives);
+        }
+        return nonNegative.getValueAtPercentile(100.0 * (rank - negatives) / nonNegative.getTotalCount());
+    }
+
+    public double getMean() {
+        long total = getTotalCount();
+        if (total == 0) {
+            return 0;
+        }
+        return (nonNegative.getMean() * nonNegative.getTotalCount() - negative.getMean() * negative.getTotalCount()) / total;
+    }
+
+    public void reset() {
+        nonNegative.reset();
+        negative.reset();
+    }
+
+    public DurationHistogram copy() {
+        return new DurationHistogram(nonNegative.copy(), negative.copy());
+    }
+
+    public byte[] toBytes() {
+        byte[] first = encode(nonNegative);
+        byte[] second = encode(negative);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + first.length + second.length);
+        buffer.putInt(first.length).put(first);
+        buffer.putInt(second.length).put(second);
+        return buffer.array();
+    }
+
+    public static DurationHistogram fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            return new DurationHistogram(decode(buffer), decode(buffer));
+        } catch (DataFormatException | RuntimeException e) {
+            throw new IllegalArgumentException("Corrupt duration histogram", e);
+        }
+    }
+
+    // Each histogram gets a buffer of its own: the compressed encoder writes from the start of the
+    // backing array regardless of the buffer's position, so two can't share one buffer
+    private static byte[] encode(IntCountsHistogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Arrays.copyOf(buffer.array(), length);
+    }
+
+    // Length-prefixed, since the compressed form doesn't say where it ends
+    private static IntCountsHistogram decode(ByteBuffer buffer) throws DataFormatException {
+        byte[] encoded = new byte[buffer.getInt()];
+        buffer.get(encoded);
+        return IntCountsHistogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(encoded), MAX_SECONDS);
+    }
+}
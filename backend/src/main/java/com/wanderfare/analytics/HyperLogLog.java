@@ -0,0 +1,125 @@
+package com.wanderfare.analytics;
+
+import java.nio.ByteBuffer;
+
+/**
+ * HyperLogLog distinct counter over long ids with 2^12 one-byte registers (4 KB dense).
+ *
+ * Error bounds: the relative standard error is 1.04 / sqrt(4096), about 1.6%, so roughly 95% of
+ * estimates fall within +/-3.3% of the true count and 99.7% within +/-4.9%. Below about 10,000
+ * distinct ids the estimator switches to linear counting, which is near exact for the tens to
+ * thousands of customers a vendor sees in a day or month. Merging is a register-wise max, so it
+ * is lossless, order-independent and idempotent (merging the same sketch twice changes nothing).
+ *
+ * Serialised form is sparse (index/value pairs) while few registers are set, dense otherwise.
+ */
+public class HyperLogLog {
+
+    public static final double RELATIVE_STANDARD_ERROR = 1.04 / Math.sqrt(4096);
+
+    private static final int PRECISION = 12;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private static final byte FORMAT_SPARSE = 1;
+    private static final byte FORMAT_DENSE = 2;
+
+    private final byte[] registers = new byte[REGISTERS];
+
+    public void add(long id) {
+        long hash = mix(id);
+        int index = (int) (hash >>> (64 - PRECISION));
+        // Sentinel bit bounds the rank at 64 - PRECISION + 1 when the remaining bits are all zero
+        long remaining = (hash << PRECISION) | (1L << (PRECISION - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double raw = ALPHA * REGISTERS * REGISTERS / sum;
+        if (raw <= 2.5 * REGISTERS && zeros > 0) {
+            return Math.round(REGISTERS * Math.log((double) REGISTERS / zeros));
+        }
+        // 64-bit hashes: no large-range correction needed
+        return Math.round(raw);
+    }
+
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public HyperLogLog copy() {
+        HyperLogLog copy = new HyperLogLog();
+        System.arraycopy(registers, 0, copy.registers, 0, REGISTERS);
+        return copy;
+    }
+
+    public byte[] toBytes() {
+        int set = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                set++;
+            }
+        }
+        if (set * 3 < REGISTERS) {
+            ByteBuffer buffer = ByteBuffer.allocate(3 + set * 3);
+            buffer.put(FORMAT_SPARSE).putShort((short) set);
+            for (int i = 0; i < REGISTERS; i++) {
+                if (registers[i] != 0) {
+                    buffer.putShort((short) i).put(registers[i]);
+                }
+            }
+            return buffer.array();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 + REGISTERS);
+        buffer.put(FORMAT_DENSE).put(registers);
+        return buffer.array();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        HyperLogLog sketch = new HyperLogLog();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte format = buffer.get();
+        if (format == FORMAT_SPARSE) {
+            int set = buffer.getShort() & 0xFFFF;
+            for (int i = 0; i < set; i++) {
+                sketch.registers[buffer.getShort() & 0xFFFF] = buffer.get();
+            }
+        } else if (format == FORMAT_DENSE) {
+            buffer.get(sketch.registers);
+        } else {
+            throw new IllegalArgumentException("Unknown HyperLogLog format " + format);
+        }
+        return sketch;
+    }
+
+    // SplitMix64 finalizer; sequential customer ids must spread across all registers
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
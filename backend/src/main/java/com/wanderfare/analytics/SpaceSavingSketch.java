@@ -0,0 +1,168 @@
+package com.wanderfare.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weighted Space-Saving heavy-hitters summary (Metwally et al.) over long keys. Keeps at most
+ * {@code capacity} counters; an unseen key replaces the smallest counter and inherits its count
+ * as error, so each estimate overshoots the true count by at most {@link Counter#getError()}.
+ * Any key with true weight above total/capacity is guaranteed to be tracked. Not thread-safe.
+ */
+public class SpaceSavingSketch {
+
+    public static class Counter {
+        private final long key;
+        private long count;
+        private long error;
+
+        Counter(long key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+    }
+
+    private final int capacity;
+    private final Map<Long, Counter> counters;
+    private long total;
+
+    public SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void add(long key, long weight) {
+        total += weight;
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += weight;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(key, weight, 0));
+            return;
+        }
+        // Capacity is small (tens of counters), so a linear scan beats maintaining a heap
+        Counter min = null;
+        for (Counter c : counters.values()) {
+            if (min == null || c.count < min.count) {
+                min = c;
+            }
+        }
+        counters.remove(min.key);
+        counters.put(key, new Counter(key, min.count + weight, min.count));
+    }
+
+    /**
+     * Adds another summary into this one (mergeable Space-Saving, Agarwal et al.). A full summary
+     * only knows that an untracked key occurred at most its minimum count times, so a key missing
+     * from one side is credited with that side's minimum, as count and as error. The largest
+     * {@code capacity} counters are then kept; every dropped key is at or below the new minimum, so
+     * the same reasoning holds for later adds and merges.
+     */
+    public void merge(SpaceSavingSketch other) {
+        long myMin = minCount();
+        long otherMin = other.minCount();
+        total += other.total;
+        for (Counter mine : counters.values()) {
+            if (!other.counters.containsKey(mine.key)) {
+                mine.count += otherMin;
+                mine.error += otherMin;
+            }
+        }
+        for (Counter c : other.counters.values()) {
+            Counter mine = counters.get(c.key);
+            if (mine != null) {
+                mine.count += c.count;
+                mine.error += c.error;
+            } else {
+                counters.put(c.key, new Counter(c.key, c.count + myMin, c.error + myMin));
+            }
+        }
+        if (counters.size() > capacity) {
+            Counter[] sorted = counters.values().toArray(new Counter[0]);
+            Arrays.sort(sorted, Comparator.comparingLong(Counter::getCount).reversed());
+            for (int i = capacity; i < sorted.length; i++) {
+                counters.remove(sorted[i].key);
+            }
+        }
+    }
+
+    // Upper bound on the count of any untracked key: zero until the summary has had to evict
+    private long minCount() {
+        if (counters.size() < capacity) {
+            return 0;
+        }
+        long min = Long.MAX_VALUE;
+        for (Counter c : counters.values()) {
+            min = Math.min(min, c.count);
+        }
+        return min;
+    }
+
+    public List<Counter> top(int k) {
+        List<Counter> result = new ArrayList<>(counters.values());
+        result.sort(Comparator.comparingLong(Counter::getCount).reversed());
+        return result.size() > k ? new ArrayList<>(result.subList(0, k)) : result;
+    }
+
+    public SpaceSavingSketch copy() {
+        SpaceSavingSketch copy = new SpaceSavingSketch(capacity);
+        copy.merge(this);
+        return copy;
+    }
+
+    public boolean isEmpty() {
+        return counters.isEmpty();
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(capacity);
+        out.writeLong(total);
+        out.writeInt(counters.size());
+        for (Counter c : counters.values()) {
+            out.writeLong(c.key);
+            out.writeLong(c.count);
+            out.writeLong(c.error);
+        }
+    }
+
+    public static SpaceSavingSketch readFrom(DataInput in) throws IOException {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(in.readInt());
+        sketch.total = in.readLong();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            long key = in.readLong();
+            sketch.counters.put(key, new Counter(key, in.readLong(), in.readLong()));
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,62 @@
+package com.wanderfare.config;
+
+import com.wanderfare.metrics.RequestSqlStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    // Fans out the admin dashboard counters; small and bounded so dashboards can't crowd out the DB pool
+    @Bean
+    public ThreadPoolTaskExecutor dashboardExecutor(
+            @Value("${wanderfare.dashboard.executor.pool-size:4}") int poolSize,
+            @Value("${wanderfare.dashboard.executor.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        // Counter queries still belong to the admin request's SQL budget
+        executor.setTaskDecorator(RequestSqlStats::propagate);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // BCrypt hashing off the request threads: a fixed pool (half the cores by default) with a short
+    // queue, aborting instead of queueing without bound so login floods can't starve order traffic
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${wanderfare.auth.hashing.pool-size:0}") int poolSize,
+            @Value("${wanderfare.auth.hashing.queue-capacity:64}") int queueCapacity) {
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    // Background analytics recomputation (one task per vendor); callers run overflow themselves
+    @Bean
+    public ThreadPoolTaskExecutor analyticsExecutor(
+            @Value("${wanderfare.analytics.executor.pool-size:4}") int poolSize,
+            @Value("${wanderfare.analytics.executor.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("analytics-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
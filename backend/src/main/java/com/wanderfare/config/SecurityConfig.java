@@ -49,6 +49,7 @@ public class SecurityConfig {
                 .requestMatchers("/swagger-ui.html").permitAll()
                 .requestMatchers("/api-docs/**").permitAll()
                 .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN") // Metrics scrape (Prometheus uses an admin bearer token)
                 
                 // Public vendor browsing and menus (customers need to view)
                 .requestMatchers("/vendors/browse/**").permitAll()
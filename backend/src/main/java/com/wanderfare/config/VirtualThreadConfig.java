@@ -0,0 +1,35 @@
+package com.wanderfare.config;
+
+import com.wanderfare.datasource.BoundedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in virtual thread execution mode. Spring Boot moves Tomcat, @Async and @Scheduled onto
+ * virtual threads when {@code spring.threads.virtual.enabled=true} (requires a Java 21 runtime);
+ * this configuration adds the matching backpressure on JDBC so that request concurrency can grow
+ * without starving the Hikari pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(
+            @Value("${wanderfare.datasource.backpressure.acquire-timeout-ms:30000}") long acquireTimeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof HikariDataSource hikari) {
+                    return new BoundedDataSource(hikari, hikari.getMaximumPoolSize(), acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,18 +1,29 @@
 package com.wanderfare.controller;
 
 import com.wanderfare.dto.VendorDto;
+import com.wanderfare.service.DashboardService;
+import com.wanderfare.service.DeliveryTimeService;
+import com.wanderfare.service.EntityCacheService;
 import com.wanderfare.service.OrderService;
+import com.wanderfare.service.ProfilingService;
+import com.wanderfare.service.RecommendationService;
+import com.wanderfare.service.RevenueRollupService;
 import com.wanderfare.service.UserService;
 import com.wanderfare.service.VendorService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -34,17 +45,29 @@ public class AdminController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private ProfilingService profilingService;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private DeliveryTimeService deliveryTimeService;
+
     @GetMapping("/dashboard/stats")
     @Operation(summary = "Get dashboard statistics", description = "Get platform statistics for admin dashboard")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
-        Map<String, Long> userStats = userService.getUserStatistics();
-        
-        // Add more statistics as needed
-        return ResponseEntity.ok(Map.of(
-            "userStats", userStats,
-            "totalVendors", userStats.get("vendors"),
-            "totalCustomers", userStats.get("customers")
-        ));
+        // Counters run concurrently and the composite is cached briefly (see DashboardService)
+        return ResponseEntity.ok(dashboardService.getDashboardStats());
     }
 
     @GetMapping("/vendors/pending")
@@ -58,6 +81,8 @@ public class AdminController {
     @Operation(summary = "Approve vendor", description = "Approve vendor registration")
     public ResponseEntity<String> approveVendor(@PathVariable Long vendorId) {
         vendorService.approveVendor(vendorId);
+        // The cached dashboard reports the pending count; show the change right away
+        dashboardService.invalidate();
         return ResponseEntity.ok("Vendor approved successfully");
     }
 
@@ -65,6 +90,8 @@ public class AdminController {
     @Operation(summary = "Reject vendor", description = "Reject vendor registration")
     public ResponseEntity<String> rejectVendor(@PathVariable Long vendorId) {
         vendorService.rejectVendor(vendorId);
+        // The cached dashboard reports the pending count; show the change right away
+        dashboardService.invalidate();
         return ResponseEntity.ok("Vendor rejected successfully");
     }
 
@@ -109,15 +136,8 @@ public class AdminController {
             endDate = LocalDateTime.now();
         }
 
-        // Calculate platform-wide revenue
-        // This is a simplified version - in real implementation, you'd have more complex analytics
-        Map<String, Object> analytics = Map.of(
-            "period", Map.of("start", startDate, "end", endDate),
-            "totalRevenue", BigDecimal.ZERO, // Implement actual calculation
-            "totalOrders", 0L,
-            "averageOrderValue", BigDecimal.ZERO
-        );
-
+        // Platform-wide revenue from the daily rollups (day granularity)
+        Map<String, Object> analytics = revenueRollupService.getRevenueSummary(null, startDate, endDate);
         return ResponseEntity.ok(analytics);
     }
 
@@ -135,14 +155,80 @@ public class AdminController {
             endDate = LocalDateTime.now();
         }
 
-        BigDecimal revenue = orderService.calculateVendorRevenue(vendorId, startDate, endDate);
-        
-        Map<String, Object> analytics = Map.of(
-            "vendorId", vendorId,
-            "period", Map.of("start", startDate, "end", endDate),
-            "revenue", revenue
-        );
+        Map<String, Object> analytics = revenueRollupService.getRevenueSummary(vendorId, startDate, endDate);
+        analytics.put("vendorId", vendorId);
+        analytics.put("revenue", analytics.get("totalRevenue"));
+        analytics.put("deliveryTimes", deliveryTimeService.getVendorDeliveryStats(
+                vendorId, startDate.toLocalDate(), endDate.toLocalDate()));
 
         return ResponseEntity.ok(analytics);
     }
+
+    @GetMapping("/analytics/delivery-times")
+    @Operation(summary = "Get delivery time analytics", description = "Delivery duration and ETA error percentiles, overall and per city")
+    public ResponseEntity<Map<String, Object>> getDeliveryTimeAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (endDate == null) {
+            endDate = LocalDate.now();
+        }
+        if (startDate == null) {
+            startDate = endDate.minusDays(29);
+        }
+        return ResponseEntity.ok(deliveryTimeService.getCityDeliveryStats(startDate, endDate));
+    }
+
+    @PostMapping("/analytics/rollups/backfill")
+    @Operation(summary = "Backfill revenue rollups", description = "Rebuild daily revenue rollups from order history")
+    public ResponseEntity<Map<String, Object>> backfillRevenueRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        int rows = revenueRollupService.backfill(startDate, endDate);
+        return ResponseEntity.ok(Map.of("rollupRows", rows));
+    }
+
+    @PostMapping("/recommendations/rebuild")
+    @Operation(summary = "Rebuild co-purchase recommendations", description = "Recompute the \"customers also ordered\" lists now instead of waiting for the schedule")
+    public ResponseEntity<Map<String, Object>> rebuildRecommendations() {
+        return ResponseEntity.ok(recommendationService.rebuild());
+    }
+
+    @GetMapping("/cache/stats")
+    @Operation(summary = "Get entity cache statistics", description = "Hit ratios for the second-level and query cache regions")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        return ResponseEntity.ok(entityCacheService.getCacheStatistics());
+    }
+
+    @PostMapping("/cache/evict")
+    @Operation(summary = "Evict entity caches", description = "Clear all second-level and query cache regions")
+    public ResponseEntity<String> evictCaches() {
+        entityCacheService.evictAll();
+        return ResponseEntity.ok("Caches evicted successfully");
+    }
+
+    @PostMapping("/profiling/recording/start")
+    @Operation(summary = "Start JFR recording", description = "Start a bounded Java Flight Recorder recording on this node")
+    public ResponseEntity<Map<String, Object>> startRecording(@RequestParam(required = false) Long durationSeconds) {
+        return ResponseEntity.ok(profilingService.startRecording(durationSeconds));
+    }
+
+    @GetMapping("/profiling/recording")
+    @Operation(summary = "Get JFR recording status", description = "Show whether a recording is in progress on this node")
+    public ResponseEntity<Map<String, Object>> getRecordingStatus() {
+        return ResponseEntity.ok(profilingService.getStatus());
+    }
+
+    @PostMapping("/profiling/recording/stop")
+    @Operation(summary = "Stop JFR recording", description = "Stop the active recording and download it as a .jfr file")
+    public void stopRecording(HttpServletResponse response) throws IOException {
+        Path file = profilingService.stopRecording();
+        try {
+            response.setContentType("application/octet-stream");
+            response.setContentLengthLong(Files.size(file));
+            response.setHeader("Content-Disposition", "attachment; filename=\"" + file.getFileName() + "\"");
+            Files.copy(file, response.getOutputStream());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.wanderfare.controller;
 
 import com.wanderfare.service.AnalyticsService;
+import com.wanderfare.service.PopularItemsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,6 +12,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @RestController
@@ -24,6 +26,9 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
 
+    @Autowired
+    private PopularItemsService popularItemsService;
+
     @GetMapping("/dashboard")
     @Operation(summary = "Get vendor dashboard analytics", description = "Get comprehensive analytics for vendor dashboard")
     public ResponseEntity<Map<String, Object>> getVendorDashboard(
@@ -44,6 +49,27 @@ public class AnalyticsController {
         return ResponseEntity.ok(analytics);
     }
 
+    @GetMapping("/popular-items")
+    @Operation(summary = "Get popular items", description = "Best-selling menu items for today, the last 7 days or the last 30 days")
+    public ResponseEntity<Map<String, Object>> getPopularItems(
+            @RequestParam(defaultValue = "WEEK") PopularItemsService.Window window,
+            @RequestParam(defaultValue = "10") int limit,
+            Authentication authentication) {
+
+        Long vendorId = getCurrentVendorId(authentication);
+        Map<String, Object> response = new HashMap<>();
+        response.put("window", window);
+        response.put("items", popularItemsService.getPopularItems(vendorId, window, limit));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/customers")
+    @Operation(summary = "Get customer analytics", description = "Estimated unique customers and repeat-customer rate for today, the last 7 days and the last 30 days")
+    public ResponseEntity<Map<String, Object>> getCustomerAnalytics(Authentication authentication) {
+        Long vendorId = getCurrentVendorId(authentication);
+        return ResponseEntity.ok(analyticsService.getCustomerAnalytics(vendorId));
+    }
+
     @GetMapping("/price-prediction")
     @Operation(summary = "Get price prediction data", description = "Get AI-powered price prediction recommendations")
     public ResponseEntity<Map<String, Object>> getPricePrediction(Authentication authentication) {
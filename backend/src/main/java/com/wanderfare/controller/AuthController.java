@@ -3,9 +3,12 @@ package com.wanderfare.controller;
 import com.wanderfare.dto.auth.AuthResponse;
 import com.wanderfare.dto.auth.LoginRequest;
 import com.wanderfare.dto.auth.RegisterRequest;
+import com.wanderfare.exception.TooManyRequestsException;
+import com.wanderfare.security.TokenRevocationStore;
 import com.wanderfare.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -20,12 +23,20 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
     @PostMapping("/login")
     @Operation(summary = "User login", description = "Authenticate user and return JWT token")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest,
+                                              HttpServletRequest request) {
         try {
-            AuthResponse response = userService.login(loginRequest);
+            // Client address as resolved by Tomcat's RemoteIpValve from trusted proxies only
+            // (server.forward-headers-strategy), never straight from X-Forwarded-For
+            AuthResponse response = userService.login(loginRequest, request.getRemoteAddr());
             return ResponseEntity.ok(response);
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Invalid credentials");
         }
@@ -37,15 +48,20 @@ public class AuthController {
         try {
             AuthResponse response = userService.register(registerRequest);
             return ResponseEntity.ok(response);
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Registration failed: " + e.getMessage());
         }
     }
 
     @PostMapping("/logout")
-    @Operation(summary = "User logout", description = "Logout user (client-side token removal)")
-    public ResponseEntity<String> logout() {
-        // JWT is stateless, so logout is handled on client side
+    @Operation(summary = "User logout", description = "Revoke the bearer token so it can no longer be used")
+    public ResponseEntity<String> logout(HttpServletRequest request) {
+        String authorizationHeader = request.getHeader("Authorization");
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            tokenRevocationStore.revoke(authorizationHeader.substring(7));
+        }
         return ResponseEntity.ok("Logged out successfully");
     }
 }
@@ -1,10 +1,14 @@
 package com.wanderfare.controller;
 
 import com.wanderfare.dto.MenuItemDto;
+import com.wanderfare.dto.PriceAdjustmentRequest;
+import com.wanderfare.service.MenuImportService;
 import com.wanderfare.service.MenuItemService;
+import com.wanderfare.service.RecommendationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -13,8 +17,11 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/vendors/menu")
@@ -25,13 +32,31 @@ public class MenuItemController {
     @Autowired
     private MenuItemService menuItemService;
 
+    @Autowired
+    private MenuImportService menuImportService;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
     @GetMapping("/vendor/{vendorId}")
     @Operation(summary = "Get vendor menu", description = "Get all available menu items for a vendor")
     public ResponseEntity<List<MenuItemDto>> getVendorMenu(@PathVariable Long vendorId) {
         List<MenuItemDto> menuItems = menuItemService.getMenuItemsByVendor(vendorId);
+        menuItems.forEach(this::addAlsoOrdered);
         return ResponseEntity.ok(menuItems);
     }
 
+    @GetMapping("/vendor/{vendorId}/also-ordered")
+    @Operation(summary = "Get co-purchase recommendations",
+               description = "Items customers often ordered together with the given items (a cart or a previous order)")
+    public ResponseEntity<List<MenuItemDto>> getAlsoOrdered(
+            @PathVariable Long vendorId,
+            @RequestParam List<Long> itemIds,
+            @RequestParam(defaultValue = "5") int limit) {
+        List<Long> recommended = recommendationService.recommendFor(itemIds, limit);
+        return ResponseEntity.ok(menuItemService.getAvailableMenuItemsByIds(vendorId, recommended));
+    }
+
     @GetMapping("/vendor/{vendorId}/paginated")
     @Operation(summary = "Get vendor menu with pagination and filters", description = "Get paginated menu items with filters")
     public ResponseEntity<Page<MenuItemDto>> getVendorMenuWithFilters(
@@ -60,6 +85,7 @@ public class MenuItemController {
     @Operation(summary = "Get menu item by ID", description = "Get menu item details by ID")
     public ResponseEntity<MenuItemDto> getMenuItemById(@PathVariable Long itemId) {
         return menuItemService.getMenuItemById(itemId)
+                .map(this::addAlsoOrdered)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -76,6 +102,33 @@ public class MenuItemController {
         return ResponseEntity.ok(createdItem);
     }
 
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('VENDOR')")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Bulk import menu items",
+               description = "Upsert menu items by name from a CSV file or JSON array in the request body; returns per-row errors")
+    public ResponseEntity<Map<String, Object>> importMenuItems(
+            @RequestParam(defaultValue = "JSON") MenuImportService.Format format,
+            Authentication authentication,
+            HttpServletRequest request) throws IOException {
+        Long vendorId = getCurrentVendorId(authentication);
+        // Body is read as a stream by the import, not bound up front
+        Map<String, Object> result = menuImportService.importMenu(vendorId, format, request.getInputStream());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/prices/adjust")
+    @PreAuthorize("hasRole('VENDOR')")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Bulk adjust prices",
+               description = "Apply a percentage or absolute price change to the vendor's menu, optionally filtered by category or item IDs")
+    public ResponseEntity<Map<String, Object>> adjustPrices(
+            @Valid @RequestBody PriceAdjustmentRequest request,
+            Authentication authentication) {
+        Long vendorId = getCurrentVendorId(authentication);
+        return ResponseEntity.ok(menuItemService.adjustPrices(vendorId, request));
+    }
+
     @PutMapping("/{itemId}")
     @PreAuthorize("hasRole('VENDOR')")
     @SecurityRequirement(name = "bearerAuth")
@@ -141,6 +194,11 @@ public class MenuItemController {
         return ResponseEntity.ok(items);
     }
 
+    private MenuItemDto addAlsoOrdered(MenuItemDto dto) {
+        dto.setAlsoOrderedItemIds(Arrays.stream(recommendationService.getAlsoOrdered(dto.getId())).boxed().toList());
+        return dto;
+    }
+
     private Long getCurrentVendorId(Authentication authentication) {
         if (authentication == null) {
             throw new IllegalStateException("Unauthenticated access");
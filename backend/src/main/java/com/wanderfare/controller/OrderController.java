@@ -1,19 +1,22 @@
 package com.wanderfare.controller;
 
+import com.wanderfare.dto.CursorSlice;
 import com.wanderfare.dto.OrderDto;
 import com.wanderfare.model.Order;
+import com.wanderfare.service.OrderExportService;
 import com.wanderfare.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -25,6 +28,9 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderExportService orderExportService;
+
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER')")
     @SecurityRequirement(name = "bearerAuth")
@@ -60,29 +66,46 @@ public class OrderController {
     @GetMapping("/customer/my-orders")
     @PreAuthorize("hasRole('CUSTOMER')")
     @SecurityRequirement(name = "bearerAuth")
-    @Operation(summary = "Get customer orders", description = "Get paginated list of customer's orders")
-    public ResponseEntity<Page<OrderDto>> getCustomerOrders(
-            @RequestParam(defaultValue = "0") int page,
+    @Operation(summary = "Get customer orders", description = "Get customer's orders newest first; pass nextCursor to continue")
+    public ResponseEntity<CursorSlice<OrderDto>> getCustomerOrders(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size,
             Authentication authentication) {
         Long customerId = getCurrentUserId(authentication);
-        Page<OrderDto> orders = orderService.getCustomerOrders(customerId, page, size);
+        CursorSlice<OrderDto> orders = orderService.getCustomerOrders(customerId, cursor, size);
         return ResponseEntity.ok(orders);
     }
 
     @GetMapping("/vendor/my-orders")
     @PreAuthorize("hasRole('VENDOR')")
     @SecurityRequirement(name = "bearerAuth")
-    @Operation(summary = "Get vendor orders", description = "Get paginated list of vendor's orders")
-    public ResponseEntity<Page<OrderDto>> getVendorOrders(
-            @RequestParam(defaultValue = "0") int page,
+    @Operation(summary = "Get vendor orders", description = "Get vendor's orders newest first; pass nextCursor to continue")
+    public ResponseEntity<CursorSlice<OrderDto>> getVendorOrders(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size,
             Authentication authentication) {
         Long vendorId = getCurrentUserId(authentication);
-        Page<OrderDto> orders = orderService.getVendorOrders(vendorId, page, size);
+        CursorSlice<OrderDto> orders = orderService.getVendorOrders(vendorId, cursor, size);
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/vendor/export")
+    @PreAuthorize("hasRole('VENDOR')")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Export vendor orders", description = "Stream the vendor's full order history as CSV or NDJSON")
+    public void exportVendorOrders(
+            @RequestParam(defaultValue = "CSV") OrderExportService.Format format,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+        Long vendorId = getCurrentUserId(authentication);
+        String extension = format == OrderExportService.Format.NDJSON ? "ndjson" : "csv";
+        response.setContentType(format == OrderExportService.Format.NDJSON
+                ? "application/x-ndjson" : "text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"orders-" + vendorId + "." + extension + "\"");
+        orderExportService.exportVendorOrders(vendorId, format, response.getOutputStream());
+    }
+
     @GetMapping("/status/{status}")
     @PreAuthorize("hasAnyRole('VENDOR', 'ADMIN')")
     @SecurityRequirement(name = "bearerAuth")
@@ -138,11 +161,11 @@ public class OrderController {
     @GetMapping("/admin/all")
     @PreAuthorize("hasRole('ADMIN')")
     @SecurityRequirement(name = "bearerAuth")
-    @Operation(summary = "Get all orders (Admin)", description = "Get paginated list of all orders for admin")
-    public ResponseEntity<Page<OrderDto>> getAllOrders(
-            @RequestParam(defaultValue = "0") int page,
+    @Operation(summary = "Get all orders (Admin)", description = "Get all orders newest first; pass nextCursor to continue")
+    public ResponseEntity<CursorSlice<OrderDto>> getAllOrders(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size) {
-        Page<OrderDto> orders = orderService.getAllOrders(page, size);
+        CursorSlice<OrderDto> orders = orderService.getAllOrders(cursor, size);
         return ResponseEntity.ok(orders);
     }
 
@@ -25,9 +25,9 @@ public class VendorController {
     private VendorService vendorService;
 
     @GetMapping("/browse")
-    @Operation(summary = "Browse all approved vendors", description = "Get list of all approved and active vendors")
-    public ResponseEntity<List<VendorDto>> getAllVendors() {
-        List<VendorDto> vendors = vendorService.getAllApprovedVendors();
+    @Operation(summary = "Browse all approved vendors", description = "Get list of all approved and active vendors, optionally only those open now")
+    public ResponseEntity<List<VendorDto>> getAllVendors(@RequestParam(defaultValue = "false") boolean openNow) {
+        List<VendorDto> vendors = vendorService.getAllApprovedVendors(openNow);
         return ResponseEntity.ok(vendors);
     }
 
@@ -37,8 +37,9 @@ public class VendorController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "businessName") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
-        Page<VendorDto> vendors = vendorService.getVendorsWithPagination(page, size, sortBy, sortDir);
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean openNow) {
+        Page<VendorDto> vendors = vendorService.getVendorsWithPagination(page, size, sortBy, sortDir, openNow);
         return ResponseEntity.ok(vendors);
     }
 
@@ -53,14 +54,15 @@ public class VendorController {
     }
 
     @GetMapping("/filter")
-    @Operation(summary = "Filter vendors", description = "Filter vendors by city, cuisine type, and minimum rating")
+    @Operation(summary = "Filter vendors", description = "Filter vendors by city, cuisine type, minimum rating, and whether they are open now")
     public ResponseEntity<Page<VendorDto>> filterVendors(
             @RequestParam(required = false) String city,
             @RequestParam(required = false) String cuisineType,
             @RequestParam(required = false) BigDecimal minRating,
+            @RequestParam(defaultValue = "false") boolean openNow,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        Page<VendorDto> vendors = vendorService.filterVendors(city, cuisineType, minRating, page, size);
+        Page<VendorDto> vendors = vendorService.filterVendors(city, cuisineType, minRating, openNow, page, size);
         return ResponseEntity.ok(vendors);
     }
 
@@ -4,6 +4,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
+import java.util.List;
 
 public class MenuItemDto {
     private Long id;
@@ -27,6 +28,7 @@ public class MenuItemDto {
     private String ingredients;
     private String nutritionalInfo;
     private Long vendorId;
+    private List<Long> alsoOrderedItemIds; // read-only, filled from the co-purchase lists
 
     // Getters and Setters
     public Long getId() {
@@ -140,4 +142,12 @@ public class MenuItemDto {
     public void setVendorId(Long vendorId) {
         this.vendorId = vendorId;
     }
+
+    public List<Long> getAlsoOrderedItemIds() {
+        return alsoOrderedItemIds;
+    }
+
+    public void setAlsoOrderedItemIds(List<Long> alsoOrderedItemIds) {
+        this.alsoOrderedItemIds = alsoOrderedItemIds;
+    }
 }
@@ -0,0 +1,55 @@
+package com.wanderfare.dto;
+
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.util.List;
+
+public class PriceAdjustmentRequest {
+    public enum Mode {
+        PERCENTAGE, ABSOLUTE
+    }
+
+    @NotNull(message = "Adjustment mode is required")
+    private Mode mode;
+
+    // Percent (e.g. 5 or -10) for PERCENTAGE, currency amount for ABSOLUTE
+    @NotNull(message = "Adjustment amount is required")
+    private BigDecimal amount;
+
+    // Optional filters; with neither set, the vendor's whole menu is repriced
+    private String category;
+    private List<Long> itemIds;
+
+    // Getters and Setters
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public List<Long> getItemIds() {
+        return itemIds;
+    }
+
+    public void setItemIds(List<Long> itemIds) {
+        this.itemIds = itemIds;
+    }
+}
@@ -0,0 +1,21 @@
+package com.wanderfare.dto.auth;
+
+/**
+ * Narrow projection of a users row for authentication. Read with a native query against the
+ * users table alone, so login and token checks never join the customer/vendor subclass tables.
+ */
+public interface UserCredentials {
+    Long getId();
+
+    String getEmail();
+
+    String getPassword();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getRole();
+
+    Boolean getIsActive();
+}
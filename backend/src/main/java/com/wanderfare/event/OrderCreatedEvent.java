@@ -0,0 +1,20 @@
+package com.wanderfare.event;
+
+import com.wanderfare.model.Order;
+
+/**
+ * Published by OrderService after a new order and its items have been saved.
+ * Listeners run synchronously inside the creating transaction.
+ */
+public class OrderCreatedEvent {
+
+    private final Order order;
+
+    public OrderCreatedEvent(Order order) {
+        this.order = order;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+}
@@ -0,0 +1,47 @@
+package com.wanderfare.event;
+
+import com.wanderfare.model.Order;
+
+/**
+ * Published by OrderService whenever an order moves to a different status (including cancellation).
+ * Listeners run synchronously inside the updating transaction. The vendor's city is read when the
+ * event is created, so after-commit listeners don't have to touch the lazy vendor association.
+ */
+public class OrderStatusChangedEvent {
+
+    private final Order order;
+    private final Order.OrderStatus previousStatus;
+    private final boolean firstDelivery;
+    private final String vendorCity;
+
+    /**
+     * @param firstDelivery true when this change delivers the order for the first time, as opposed
+     *                      to moving it back to DELIVERED after a correction
+     */
+    public OrderStatusChangedEvent(Order order, Order.OrderStatus previousStatus, boolean firstDelivery) {
+        this.order = order;
+        this.previousStatus = previousStatus;
+        this.firstDelivery = firstDelivery;
+        this.vendorCity = order.getVendor().getCity();
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public Order.OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public Order.OrderStatus getNewStatus() {
+        return order.getStatus();
+    }
+
+    public boolean isFirstDelivery() {
+        return firstDelivery;
+    }
+
+    public String getVendorCity() {
+        return vendorCity;
+    }
+}
@@ -0,0 +1,21 @@
+package com.wanderfare.event;
+
+import com.wanderfare.model.Vendor;
+
+/**
+ * Published whenever a vendor's profile, rating, approval or active flag is saved, from inside the
+ * updating transaction. Listeners that keep in-memory state (VendorAvailabilityIndex) apply it after
+ * commit, so a rolled-back change is never seen.
+ */
+public class VendorChangedEvent {
+
+    private final Vendor vendor;
+
+    public VendorChangedEvent(Vendor vendor) {
+        this.vendor = vendor;
+    }
+
+    public Vendor getVendor() {
+        return vendor;
+    }
+}
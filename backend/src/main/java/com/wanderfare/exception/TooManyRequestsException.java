@@ -0,0 +1,17 @@
+package com.wanderfare.exception;
+
+/**
+ * Load shedding or throttling rejection; mapped to 429 with a Retry-After header.
+ */
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,24 @@
+package com.wanderfare.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.wanderfare.AnalyticsQuery")
+@Label("Analytics Query")
+@Category({"WanderFare", "Analytics"})
+@Description("One AnalyticsService computation")
+@StackTrace(false)
+public class AnalyticsQueryEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Vendor Id")
+    public long vendorId;
+
+    @Label("Orders Scanned")
+    public int ordersScanned;
+}
@@ -0,0 +1,21 @@
+package com.wanderfare.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.wanderfare.DtoMapping")
+@Label("DTO Mapping")
+@Category({"WanderFare", "Mapping"})
+@Description("Entity to DTO conversion, including any lazy loads it triggers")
+@StackTrace(false)
+public class DtoMappingEvent extends jdk.jfr.Event {
+
+    @Label("DTO Type")
+    public String dtoType;
+
+    @Label("Entity Id")
+    public long entityId;
+}
@@ -0,0 +1,41 @@
+package com.wanderfare.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds JDBC execution time to the current request's {@link RequestSqlStats}. Hibernate creates
+ * one instance per session (registered through hibernate.session.events.auto), and a session
+ * executes statements one at a time, so a single start timestamp is enough.
+ */
+public class JdbcTimingListener implements SessionEventListener {
+
+    private long startNanos;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    private void record() {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null && startNanos != 0) {
+            stats.recordJdbcTime(System.nanoTime() - startNanos);
+        }
+        startNanos = 0;
+    }
+}
@@ -0,0 +1,24 @@
+package com.wanderfare.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.wanderfare.OrderCreation")
+@Label("Order Creation")
+@Category({"WanderFare", "Orders"})
+@Description("OrderService.createOrder from customer lookup to the saved order")
+@StackTrace(false)
+public class OrderCreationEvent extends jdk.jfr.Event {
+
+    @Label("Vendor Id")
+    public long vendorId;
+
+    @Label("Line Count")
+    public int lineCount;
+
+    @Label("Order Id")
+    public long orderId;
+}
@@ -0,0 +1,115 @@
+package com.wanderfare.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Records how many SQL statements each request issued, tagged like http.server.requests so the
+ * two can be read side by side, and enforces the per-request statement budget: requests over the
+ * statement or JDBC time limit are logged with their most frequent SQL shapes. Runs ahead of the
+ * security chain so the JWT user lookup counts. The request's {@link RequestSqlStats} stays
+ * readable afterwards under {@link #STATS_ATTRIBUTE}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENT_COUNT_HEADER = "X-SQL-Statement-Count";
+    public static final String JDBC_TIME_HEADER = "X-SQL-Time-Ms";
+    public static final String STATS_ATTRIBUTE = RequestSqlStats.class.getName();
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+    private static final int SHAPES_LOGGED = 5;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${wanderfare.sql-budget.max-statements:20}")
+    private int maxStatements;
+
+    @Value("${wanderfare.sql-budget.max-jdbc-time-ms:500}")
+    private long maxJdbcTimeMs;
+
+    // Buffers the response body so the headers can be set after the handler ran; keep off in prod
+    @Value("${wanderfare.sql-budget.expose-header:false}")
+    private boolean exposeHeader;
+
+    // Streamed responses (exports) are never buffered, so they get no headers
+    @Value("${wanderfare.sql-budget.unbuffered-paths:/orders/vendor/export}")
+    private List<String> unbufferedPaths;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper cachingResponse = exposeHeader && !isUnbuffered(request)
+                ? new ContentCachingResponseWrapper(response) : null;
+        RequestSqlStats stats = RequestSqlStats.begin();
+        request.setAttribute(STATS_ATTRIBUTE, stats);
+        try {
+            filterChain.doFilter(request, cachingResponse != null ? cachingResponse : response);
+        } finally {
+            RequestSqlStats.end();
+            String uri = uriTag(request);
+            DistributionSummary.builder("wanderfare.http.sql.statements")
+                    .description("SQL statements issued per HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(stats.getStatementCount());
+
+            if (stats.getStatementCount() > maxStatements || stats.getJdbcTimeMillis() > maxJdbcTimeMs) {
+                log.warn("SQL budget exceeded: {} {} ran {} statements in {} ms (budget {} / {} ms); top shapes: {}",
+                        request.getMethod(), uri, stats.getStatementCount(), stats.getJdbcTimeMillis(),
+                        maxStatements, maxJdbcTimeMs, topShapes(stats));
+            }
+
+            if (cachingResponse != null) {
+                cachingResponse.setHeader(STATEMENT_COUNT_HEADER, String.valueOf(stats.getStatementCount()));
+                cachingResponse.setHeader(JDBC_TIME_HEADER, String.valueOf(stats.getJdbcTimeMillis()));
+                cachingResponse.copyBodyToResponse();
+            }
+        }
+    }
+
+    private boolean isUnbuffered(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return unbufferedPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private String uriTag(HttpServletRequest request) {
+        // Route template, not the raw path, to keep tag cardinality bounded
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    private String topShapes(RequestSqlStats stats) {
+        return stats.getShapes().entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(SHAPES_LOGGED)
+                .map(entry -> entry.getValue() + "x " + entry.getKey())
+                .collect(Collectors.joining(" | "));
+    }
+}
@@ -0,0 +1,96 @@
+package com.wanderfare.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL activity for the request bound to the current thread. Populated by
+ * {@link SqlStatementCounter} (statements and their shapes) and {@link JdbcTimingListener}
+ * (execution time), and opened/closed by {@link RequestMetricsFilter}. Executors that do work on
+ * behalf of a request carry it over with {@link #propagate}; statements issued outside a request
+ * (schedulers, background jobs) are not tracked.
+ */
+public class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    // Distinct shapes kept per request; enough to spot an N+1 without unbounded growth
+    private static final int MAX_SHAPES = 50;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+
+    private int statementCount;
+    private long jdbcTimeNanos;
+    private final Map<String, Integer> shapes = new LinkedHashMap<>();
+
+    public static RequestSqlStats begin() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * TaskDecorator that runs the task against the submitting thread's stats, so queries fanned
+     * out to a pool still count towards the request.
+     */
+    public static Runnable propagate(Runnable task) {
+        RequestSqlStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            RequestSqlStats previous = CURRENT.get();
+            CURRENT.set(stats);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    // Synchronized: propagated tasks record from several threads at once
+    synchronized void recordStatement(String sql) {
+        statementCount++;
+        String shape = shapeOf(sql);
+        if (shapes.containsKey(shape) || shapes.size() < MAX_SHAPES) {
+            shapes.merge(shape, 1, Integer::sum);
+        }
+    }
+
+    synchronized void recordJdbcTime(long nanos) {
+        jdbcTimeNanos += nanos;
+    }
+
+    public synchronized int getStatementCount() {
+        return statementCount;
+    }
+
+    public synchronized long getJdbcTimeMillis() {
+        return jdbcTimeNanos / 1_000_000;
+    }
+
+    public Map<String, Integer> getShapes() {
+        return shapes;
+    }
+
+    // Hibernate already binds parameters as '?', so collapsing whitespace and IN lists is enough
+    // for statements that differ only in their arguments to share a shape
+    static String shapeOf(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return IN_LIST.matcher(shape).replaceAll("in (?...)");
+    }
+}
@@ -0,0 +1,18 @@
+package com.wanderfare.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.wanderfare.TokenParsing")
+@Label("Token Parsing")
+@Category({"WanderFare", "Security"})
+@Description("JwtAuthenticationFilter resolving a bearer token into an authentication")
+@StackTrace(false)
+public class TokenParsingEvent extends jdk.jfr.Event {
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,98 @@
+package com.wanderfare.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Delivery duration and ETA error histograms for one vendor or one city on one day. Written by
+ * DeliveryTimeService, which adds to the stored histograms rather than overwriting them.
+ */
+@Entity
+@Table(name = "delivery_time_histograms",
+       uniqueConstraints = @UniqueConstraint(name = "uk_delivery_histogram_scope_key_date",
+               columnNames = {"scope", "scope_key", "histogram_date"}))
+public class DeliveryTimeHistogram {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Scope scope;
+
+    @Column(name = "scope_key", nullable = false)
+    private String scopeKey;
+
+    @Column(name = "histogram_date", nullable = false)
+    private LocalDate histogramDate;
+
+    @Column(name = "delivered_count", nullable = false)
+    private Long deliveredCount;
+
+    @Column(name = "duration_histogram", nullable = false, length = 65535)
+    private byte[] durationHistogram;
+
+    @Column(name = "eta_error_histogram", nullable = false, length = 65535)
+    private byte[] etaErrorHistogram;
+
+    public enum Scope {
+        VENDOR, CITY
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Scope getScope() {
+        return scope;
+    }
+
+    public void setScope(Scope scope) {
+        this.scope = scope;
+    }
+
+    public String getScopeKey() {
+        return scopeKey;
+    }
+
+    public void setScopeKey(String scopeKey) {
+        this.scopeKey = scopeKey;
+    }
+
+    public LocalDate getHistogramDate() {
+        return histogramDate;
+    }
+
+    public void setHistogramDate(LocalDate histogramDate) {
+        this.histogramDate = histogramDate;
+    }
+
+    public Long getDeliveredCount() {
+        return deliveredCount;
+    }
+
+    public void setDeliveredCount(Long deliveredCount) {
+        this.deliveredCount = deliveredCount;
+    }
+
+    public byte[] getDurationHistogram() {
+        return durationHistogram;
+    }
+
+    public void setDurationHistogram(byte[] durationHistogram) {
+        this.durationHistogram = durationHistogram;
+    }
+
+    public byte[] getEtaErrorHistogram() {
+        return etaErrorHistogram;
+    }
+
+    public void setEtaErrorHistogram(byte[] etaErrorHistogram) {
+        this.etaErrorHistogram = etaErrorHistogram;
+    }
+}
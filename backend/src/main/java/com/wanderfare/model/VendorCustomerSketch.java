@@ -0,0 +1,71 @@
+package com.wanderfare.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Serialised HyperLogLog of the distinct customers who ordered from a vendor on one day, with the
+ * day's order count. Written by CustomerSketchService, which merges rather than overwrites.
+ */
+@Entity
+@Table(name = "vendor_customer_sketches",
+       uniqueConstraints = @UniqueConstraint(name = "uk_customer_sketch_vendor_date",
+               columnNames = {"vendor_id", "sketch_date"}))
+public class VendorCustomerSketch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "vendor_id", nullable = false)
+    private Long vendorId;
+
+    @Column(name = "sketch_date", nullable = false)
+    private LocalDate sketchDate;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Column(name = "sketch", nullable = false, length = 4200)
+    private byte[] sketch;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVendorId() {
+        return vendorId;
+    }
+
+    public void setVendorId(Long vendorId) {
+        this.vendorId = vendorId;
+    }
+
+    public LocalDate getSketchDate() {
+        return sketchDate;
+    }
+
+    public void setSketchDate(LocalDate sketchDate) {
+        this.sketchDate = sketchDate;
+    }
+
+    public Long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(Long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public byte[] getSketch() {
+        return sketch;
+    }
+
+    public void setSketch(byte[] sketch) {
+        this.sketch = sketch;
+    }
+}
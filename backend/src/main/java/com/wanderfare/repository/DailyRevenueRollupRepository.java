@@ -0,0 +1,43 @@
+package com.wanderfare.repository;
+
+import com.wanderfare.model.DailyRevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DailyRevenueRollupRepository extends JpaRepository<DailyRevenueRollup, Long> {
+
+    @Modifying
+    @Query("DELETE FROM DailyRevenueRollup r WHERE r.rollupDate >= :startDate AND r.rollupDate < :endDate")
+    int deleteByDateRange(@Param("startDate") LocalDate startDate,
+                          @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_revenue_rollups (rollup_date, vendor_id, city, status, order_count, revenue) " +
+                   "SELECT DATE(o.created_at), o.vendor_id, COALESCE(v.city, ''), o.status, COUNT(*), " +
+                   "COALESCE(SUM(o.final_amount), 0) " +
+                   "FROM orders o JOIN vendors v ON v.user_id = o.vendor_id " +
+                   "WHERE o.created_at >= :startTime AND o.created_at < :endTime " +
+                   "GROUP BY DATE(o.created_at), o.vendor_id, COALESCE(v.city, ''), o.status",
+           nativeQuery = true)
+    int rebuildFromOrders(@Param("startTime") LocalDateTime startTime,
+                          @Param("endTime") LocalDateTime endTime);
+
+    @Query("SELECT r.status, SUM(r.orderCount), SUM(r.revenue) FROM DailyRevenueRollup r " +
+           "WHERE r.rollupDate BETWEEN :startDate AND :endDate GROUP BY r.status")
+    List<Object[]> sumByStatus(@Param("startDate") LocalDate startDate,
+                               @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT r.status, SUM(r.orderCount), SUM(r.revenue) FROM DailyRevenueRollup r " +
+           "WHERE r.vendorId = :vendorId AND r.rollupDate BETWEEN :startDate AND :endDate GROUP BY r.status")
+    List<Object[]> sumByStatusForVendor(@Param("vendorId") Long vendorId,
+                                        @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,34 @@
+package com.wanderfare.repository;
+
+import com.wanderfare.model.DeliveryTimeHistogram;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DeliveryTimeHistogramRepository extends JpaRepository<DeliveryTimeHistogram, Long> {
+
+    List<DeliveryTimeHistogram> findByScopeAndScopeKeyAndHistogramDateBetween(DeliveryTimeHistogram.Scope scope,
+                                                                              String scopeKey,
+                                                                              LocalDate startDate,
+                                                                              LocalDate endDate);
+
+    List<DeliveryTimeHistogram> findByScopeAndHistogramDateBetween(DeliveryTimeHistogram.Scope scope,
+                                                                   LocalDate startDate,
+                                                                   LocalDate endDate);
+
+    // Row lock so concurrent flushes add to the stored histograms instead of overwriting each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM DeliveryTimeHistogram h WHERE h.scope = :scope AND h.scopeKey = :scopeKey " +
+           "AND h.histogramDate = :histogramDate")
+    Optional<DeliveryTimeHistogram> findForUpdate(@Param("scope") DeliveryTimeHistogram.Scope scope,
+                                                  @Param("scopeKey") String scopeKey,
+                                                  @Param("histogramDate") LocalDate histogramDate);
+}
@@ -0,0 +1,22 @@
+package com.wanderfare.repository;
+
+import com.wanderfare.model.MenuItemDailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MenuItemDailySalesRepository extends JpaRepository<MenuItemDailySales, Long> {
+
+    @Query("SELECT s FROM MenuItemDailySales s WHERE s.vendorId = :vendorId AND s.salesDate >= :since " +
+           "ORDER BY s.menuItemId, s.salesDate")
+    List<MenuItemDailySales> findByVendorSince(@Param("vendorId") Long vendorId,
+                                               @Param("since") LocalDate since);
+
+    @Query("SELECT DISTINCT s.vendorId FROM MenuItemDailySales s WHERE s.salesDate >= :since")
+    List<Long> findActiveVendorIds(@Param("since") LocalDate since);
+}
@@ -0,0 +1,13 @@
+package com.wanderfare.repository;
+
+import com.wanderfare.model.MenuItemPriceHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MenuItemPriceHistoryRepository extends JpaRepository<MenuItemPriceHistory, Long> {
+
+    List<MenuItemPriceHistory> findByMenuItemIdOrderByChangedAtDesc(Long menuItemId);
+}
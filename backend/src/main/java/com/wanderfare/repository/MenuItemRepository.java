@@ -5,9 +5,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -24,7 +27,9 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     
     List<MenuItem> findByIsVegan(Boolean isVegan);
     
+    // Public menu view; results cached in the query cache and invalidated on any menu_items write
     @Query("SELECT m FROM MenuItem m WHERE m.vendor.id = :vendorId AND m.isAvailable = true")
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<MenuItem> findAvailableByVendorId(@Param("vendorId") Long vendorId);
     
     @Query("SELECT m FROM MenuItem m WHERE m.vendor.id = :vendorId AND " +
@@ -47,5 +52,6 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
                                         @Param("searchTerm") String searchTerm);
     
     @Query("SELECT DISTINCT m.category FROM MenuItem m WHERE m.vendor.id = :vendorId")
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<String> findCategoriesByVendorId(@Param("vendorId") Long vendorId);
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -18,8 +19,13 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     @Query("SELECT oi FROM OrderItem oi WHERE oi.order.vendor.id = :vendorId")
     List<OrderItem> findByVendorId(@Param("vendorId") Long vendorId);
     
-    @Query("SELECT oi.menuItem.name, SUM(oi.quantity) as totalQuantity FROM OrderItem oi " +
-           "WHERE oi.order.vendor.id = :vendorId GROUP BY oi.menuItem.id, oi.menuItem.name " +
-           "ORDER BY totalQuantity DESC")
-    List<Object[]> findPopularItemsByVendor(@Param("vendorId") Long vendorId);
+    // Per day, vendor and item quantities of the orders in (afterId, upToId] created since a point
+    // in time; seeds the popular-items sketches
+    @Query(value = "SELECT DATE(o.created_at) AS day, o.vendor_id, oi.menu_item_id, SUM(oi.quantity) " +
+           "FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+           "WHERE o.created_at >= :since AND o.id > :afterId AND o.id <= :upToId " +
+           "GROUP BY DATE(o.created_at), o.vendor_id, oi.menu_item_id", nativeQuery = true)
+    List<Object[]> sumQuantitiesByDayVendorAndItem(@Param("since") LocalDateTime since,
+                                                  @Param("afterId") long afterId,
+                                                  @Param("upToId") long upToId);
 }
@@ -1,8 +1,8 @@
 package com.wanderfare.repository;
 
 import com.wanderfare.model.Order;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,12 +21,8 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     List<Order> findByCustomerId(Long customerId);
     
-    Page<Order> findByCustomerId(Long customerId, Pageable pageable);
-    
     List<Order> findByVendorId(Long vendorId);
     
-    Page<Order> findByVendorId(Long vendorId, Pageable pageable);
-    
     List<Order> findByStatus(Order.OrderStatus status);
     
     List<Order> findByPaymentStatus(Order.PaymentStatus paymentStatus);
@@ -57,6 +54,51 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT COUNT(o) FROM Order o WHERE o.status = :status")
     Long countByStatus(@Param("status") Order.OrderStatus status);
     
-    @Query("SELECT o FROM Order o ORDER BY o.createdAt DESC")
-    Page<Order> findAllOrderByCreatedAtDesc(Pageable pageable);
+    @Query("SELECT o.status, COUNT(o) FROM Order o GROUP BY o.status")
+    List<Object[]> countGroupedByStatus();
+    
+    // (vendor id, count) for vendors with orders in any of the given statuses
+    @Query("SELECT o.vendor.id, COUNT(o) FROM Order o WHERE o.status IN :statuses GROUP BY o.vendor.id")
+    List<Object[]> countByVendorInStatuses(@Param("statuses") Collection<Order.OrderStatus> statuses);
+    
+    // Keyset pagination in newest-first (createdAt, id) order. The first page has no cursor
+    // predicate; later pages return rows strictly after the cursor. Returned as Slice so no count
+    // query is issued.
+    @Query("SELECT o FROM Order o WHERE o.customer.id = :customerId ORDER BY o.createdAt DESC, o.id DESC")
+    Slice<Order> findFirstByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+    
+    @Query("SELECT o FROM Order o WHERE o.customer.id = :customerId AND " +
+           "(o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    Slice<Order> findByCustomerIdBefore(@Param("customerId") Long customerId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+    
+    @Query("SELECT o FROM Order o WHERE o.vendor.id = :vendorId ORDER BY o.createdAt DESC, o.id DESC")
+    Slice<Order> findFirstByVendorId(@Param("vendorId") Long vendorId, Pageable pageable);
+    
+    @Query("SELECT o FROM Order o WHERE o.vendor.id = :vendorId AND " +
+           "(o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    Slice<Order> findByVendorIdBefore(@Param("vendorId") Long vendorId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+    
+    @Query("SELECT o FROM Order o ORDER BY o.createdAt DESC, o.id DESC")
+    Slice<Order> findFirst(Pageable pageable);
+    
+    @Query("SELECT o FROM Order o WHERE " +
+           "o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    Slice<Order> findAllBefore(@Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") Long id,
+                              Pageable pageable);
+    
+    @Query("SELECT MIN(o.createdAt) FROM Order o")
+    LocalDateTime findEarliestCreatedAt();
+
+    @Query("SELECT COALESCE(MAX(o.id), 0) FROM Order o")
+    long findMaxId();
 }
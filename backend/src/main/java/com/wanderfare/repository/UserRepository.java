@@ -1,5 +1,6 @@
 package com.wanderfare.repository;
 
+import com.wanderfare.dto.auth.UserCredentials;
 import com.wanderfare.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -13,6 +14,12 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     
     Optional<User> findByEmail(String email);
+
+    // Authentication path: users table only, no polymorphic join or entity hydration
+    @Query(value = "SELECT id AS id, email AS email, password AS password, first_name AS firstName, " +
+            "last_name AS lastName, role AS role, is_active AS isActive FROM users WHERE email = :email",
+            nativeQuery = true)
+    Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
     
     boolean existsByEmail(String email);
     
@@ -25,4 +32,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role")
     Long countByRole(@Param("role") User.Role role);
+    
+    // Native so the count reads users alone instead of joining the customer/vendor subclass tables
+    @Query(value = "SELECT role, COUNT(*) FROM users GROUP BY role", nativeQuery = true)
+    List<Object[]> countGroupedByRole();
 }
@@ -0,0 +1,27 @@
+package com.wanderfare.repository;
+
+import com.wanderfare.model.VendorCustomerSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VendorCustomerSketchRepository extends JpaRepository<VendorCustomerSketch, Long> {
+
+    List<VendorCustomerSketch> findByVendorIdAndSketchDateBetween(Long vendorId, LocalDate startDate, LocalDate endDate);
+
+    boolean existsByVendorIdAndSketchDate(Long vendorId, LocalDate sketchDate);
+
+    // Row lock so concurrent flushes (e.g. from two nodes) merge instead of overwriting each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM VendorCustomerSketch s WHERE s.vendorId = :vendorId AND s.sketchDate = :sketchDate")
+    Optional<VendorCustomerSketch> findForUpdate(@Param("vendorId") Long vendorId,
+                                                 @Param("sketchDate") LocalDate sketchDate);
+}
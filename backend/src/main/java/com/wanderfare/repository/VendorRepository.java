@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +39,21 @@ public interface VendorRepository extends JpaRepository<Vendor, Long> {
                                 @Param("minRating") BigDecimal minRating,
                                 Pageable pageable);
     
+    // Candidates come from VendorAvailabilityIndex; the remaining filters are re-checked against the row
+    @Query("SELECT v FROM Vendor v WHERE v.id IN :ids AND v.isApproved = true AND v.isActive = true AND " +
+           "(:city IS NULL OR v.city = :city) AND " +
+           "(:cuisineType IS NULL OR v.cuisineType = :cuisineType) AND " +
+           "(:minRating IS NULL OR v.rating >= :minRating)")
+    Page<Vendor> findByIdInWithFilters(@Param("ids") Collection<Long> ids,
+                                      @Param("city") String city,
+                                      @Param("cuisineType") String cuisineType,
+                                      @Param("minRating") BigDecimal minRating,
+                                      Pageable pageable);
+    
+    // One page of ids from VendorAvailabilityIndex; a vendor unlisted since the index was built drops out
+    @Query("SELECT v FROM Vendor v WHERE v.id IN :ids AND v.isApproved = true AND v.isActive = true ORDER BY v.id")
+    List<Vendor> findListedByIdIn(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT v FROM Vendor v WHERE v.isApproved = true AND v.isActive = true AND " +
            "(LOWER(v.businessName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(v.cuisineType) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
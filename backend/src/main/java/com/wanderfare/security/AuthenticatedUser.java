@@ -0,0 +1,73 @@
+package com.wanderfare.security;
+
+import com.wanderfare.dto.auth.UserCredentials;
+import com.wanderfare.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Security principal built from {@link UserCredentials} instead of a managed {@link User} entity.
+ */
+public class AuthenticatedUser implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final String password;
+    private final User.Role role;
+    private final boolean active;
+
+    public AuthenticatedUser(UserCredentials credentials) {
+        this.id = credentials.getId();
+        this.email = credentials.getEmail();
+        this.password = credentials.getPassword();
+        this.role = User.Role.valueOf(credentials.getRole());
+        this.active = Boolean.TRUE.equals(credentials.getIsActive());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public User.Role getRole() {
+        return role;
+    }
+}
@@ -1,6 +1,9 @@
 package com.wanderfare.security;
 
+import com.wanderfare.metrics.TokenParsingEvent;
 import com.wanderfare.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,10 +27,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
         
+        Timer.Sample sample = Timer.start(meterRegistry);
+        TokenParsingEvent jfrEvent = new TokenParsingEvent();
+        jfrEvent.begin();
+        String outcome = authenticate(request);
+        jfrEvent.outcome = outcome;
+        jfrEvent.commit();
+        sample.stop(Timer.builder("wanderfare.auth.jwt")
+                .description("Time spent resolving the bearer token into an authentication")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+
+        filterChain.doFilter(request, response);
+    }
+
+    private String authenticate(HttpServletRequest request) {
         final String authorizationHeader = request.getHeader("Authorization");
 
         String username = null;
@@ -39,10 +64,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 username = jwtUtil.extractUsername(jwt);
             } catch (Exception e) {
                 logger.error("JWT token extraction failed", e);
+                return "invalid";
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (username == null) {
+            return "anonymous";
+        }
+
+        // In-memory lookup; logged-out tokens are rejected without touching the database
+        if (tokenRevocationStore.isRevoked(jwtUtil.extractTokenId(jwt))) {
+            return "revoked";
+        }
+
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = userService.loadUserByUsername(username);
 
             if (jwtUtil.validateToken(jwt, userDetails)) {
@@ -57,9 +92,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 authToken.setDetails(details);
                 
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+                return "authenticated";
             }
+            return "invalid";
         }
 
-        filterChain.doFilter(request, response);
+        return "authenticated";
     }
 }
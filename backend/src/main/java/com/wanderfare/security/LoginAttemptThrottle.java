@@ -0,0 +1,102 @@
+package com.wanderfare.security;
+
+import com.wanderfare.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixed-window login attempt counters per (email, client IP) pair and per client IP. Keying the
+ * account counter by IP too means a client can only use up its own attempts at an account, not
+ * lock the owner out everywhere; the looser per-IP counter caps spraying across many accounts.
+ * Each counter packs the window index (high 32 bits) and the attempt count (low 32 bits) into
+ * one long that is counted and compared in a single {@link ConcurrentHashMap#merge}, before any
+ * BCrypt work, so concurrent guesses can't all pass the check ahead of their failures. A
+ * successful login gives its attempt back.
+ */
+@Component
+public class LoginAttemptThrottle {
+
+    @Value("${wanderfare.auth.throttle.max-failures-per-email:5}")
+    private int maxFailuresPerEmail;
+
+    @Value("${wanderfare.auth.throttle.max-failures-per-ip:50}")
+    private int maxFailuresPerIp;
+
+    @Value("${wanderfare.auth.throttle.window-seconds:900}")
+    private long windowSeconds;
+
+    private final Map<String, Long> accountAttempts = new ConcurrentHashMap<>();
+    private final Map<String, Long> ipAttempts = new ConcurrentHashMap<>();
+
+    /**
+     * Counts a login attempt, or rejects it with a 429 when the account (from this IP) or the IP
+     * has used up its attempts for the current window.
+     */
+    public void acquire(String email, String clientIp) {
+        long window = currentWindow();
+        String accountKey = accountKey(email, clientIp);
+        if (!tryAcquire(accountAttempts, accountKey, window, maxFailuresPerEmail)) {
+            throw tooManyAttempts(window);
+        }
+        if (!tryAcquire(ipAttempts, ipKey(clientIp), window, maxFailuresPerIp)) {
+            release(accountAttempts, accountKey, window);
+            throw tooManyAttempts(window);
+        }
+    }
+
+    public void recordSuccess(String email, String clientIp) {
+        accountAttempts.remove(accountKey(email, clientIp));
+        release(ipAttempts, ipKey(clientIp), currentWindow());
+    }
+
+    // Drops counters from past windows so a spray of distinct emails can't grow the maps forever;
+    // removal is conditional on the value, so it can't drop an attempt counted concurrently
+    @Scheduled(fixedDelayString = "${wanderfare.auth.throttle.prune-interval-ms:60000}")
+    public void pruneExpired() {
+        long window = currentWindow();
+        accountAttempts.values().removeIf(state -> windowOf(state) != window);
+        ipAttempts.values().removeIf(state -> windowOf(state) != window);
+    }
+
+    // Rejected attempts stop counting at max + 1, so a flood can't overflow the count
+    private boolean tryAcquire(Map<String, Long> counters, String key, long window, int max) {
+        long state = counters.merge(key, (window << 32) | 1, (current, fresh) ->
+                windowOf(current) != window ? fresh : count(current) > max ? current : current + 1);
+        return count(state) <= max;
+    }
+
+    private void release(Map<String, Long> counters, String key, long window) {
+        counters.computeIfPresent(key, (k, state) ->
+                windowOf(state) == window && count(state) > 0 ? state - 1 : state);
+    }
+
+    private TooManyRequestsException tooManyAttempts(long window) {
+        return new TooManyRequestsException("Too many failed login attempts, please try again later",
+                Math.max(1, (window + 1) * windowSeconds - System.currentTimeMillis() / 1000));
+    }
+
+    private long currentWindow() {
+        return (System.currentTimeMillis() / 1000) / windowSeconds;
+    }
+
+    private static long windowOf(long state) {
+        return state >>> 32;
+    }
+
+    private static int count(long state) {
+        return (int) state;
+    }
+
+    private static String accountKey(String email, String clientIp) {
+        return (email == null ? "" : email.toLowerCase(Locale.ROOT)) + "|" + ipKey(clientIp);
+    }
+
+    private static String ipKey(String clientIp) {
+        return clientIp == null ? "unknown" : clientIp;
+    }
+}
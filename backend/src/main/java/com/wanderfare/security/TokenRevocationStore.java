@@ -0,0 +1,97 @@
+package com.wanderfare.security;
+
+import com.wanderfare.model.RevokedToken;
+import com.wanderfare.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked JWT ids held in memory for an O(1) check on every authenticated request. Only tokens
+ * that were logged out and have not yet expired are kept, so the set stays small; entries are
+ * dropped once the token would have expired anyway. The revoked_tokens table is the durable copy:
+ * it is loaded at startup and polled for revocations made on other nodes.
+ */
+@Component
+public class TokenRevocationStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    // Overlap between sync polls so a revocation committed during the previous poll isn't missed
+    private static final long SYNC_OVERLAP_SECONDS = 5;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    // token id -> expiry (epoch millis)
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastSync;
+
+    @PostConstruct
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.findByExpiresAtAfter(now).forEach(this::remember);
+        lastSync = now;
+        log.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.containsKey(tokenId);
+    }
+
+    /**
+     * Revokes a still-valid token. Invalid or already expired tokens are ignored since they can't
+     * authenticate anyway.
+     */
+    public void revoke(String token) {
+        if (!jwtUtil.validateToken(token)) {
+            return;
+        }
+        String tokenId = jwtUtil.extractTokenId(token);
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(jwtUtil.extractExpiration(token).toInstant(), ZoneId.systemDefault());
+
+        RevokedToken entry = new RevokedToken(tokenId, expiresAt, LocalDateTime.now());
+        revokedTokenRepository.save(entry);
+        remember(entry);
+    }
+
+    @Scheduled(fixedDelayString = "${wanderfare.auth.revocation.sync-interval-ms:30000}")
+    public void syncFromDatabase() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastSync.minusSeconds(SYNC_OVERLAP_SECONDS);
+        revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now).forEach(this::remember);
+        lastSync = now;
+    }
+
+    @Scheduled(fixedDelayString = "${wanderfare.auth.revocation.prune-interval-ms:600000}")
+    public void pruneExpired() {
+        long nowMillis = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt < nowMillis);
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Pruned {} expired revoked tokens", deleted);
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private void remember(RevokedToken entry) {
+        Instant expiresAt = entry.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant();
+        revoked.put(entry.getTokenId(), expiresAt.toEpochMilli());
+    }
+}
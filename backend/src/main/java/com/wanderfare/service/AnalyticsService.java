@@ -1,12 +1,15 @@
 package com.wanderfare.service;
 
+import com.wanderfare.metrics.AnalyticsQueryEvent;
 import com.wanderfare.model.Order;
-import com.wanderfare.repository.OrderItemRepository;
 import com.wanderfare.repository.OrderRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.HashMap;
@@ -15,15 +18,28 @@ import java.util.List;
 import java.util.Map;
 
 @Service
+@Transactional(readOnly = true)
+@Timed(value = "wanderfare.analytics", histogram = true)
 public class AnalyticsService {
 
     @Autowired
     private OrderRepository orderRepository;
 
     @Autowired
-    private OrderItemRepository orderItemRepository;
+    private PopularItemsService popularItemsService;
+
+    @Autowired
+    private PricePredictionService pricePredictionService;
+
+    @Autowired
+    private CustomerSketchService customerSketchService;
+
+    @Autowired
+    private DeliveryTimeService deliveryTimeService;
 
     public Map<String, Object> getVendorAnalytics(Long vendorId, LocalDateTime startDate, LocalDateTime endDate) {
+        AnalyticsQueryEvent jfrEvent = new AnalyticsQueryEvent();
+        jfrEvent.begin();
         Map<String, Object> analytics = new HashMap<>();
 
         // Revenue calculation
@@ -42,9 +58,14 @@ public class AnalyticsService {
             analytics.put("averageOrderValue", BigDecimal.ZERO);
         }
 
-        // Popular items
-        List<Object[]> popularItems = orderItemRepository.findPopularItemsByVendor(vendorId);
-        analytics.put("popularItems", popularItems);
+        // Popular items (last 30 days, from the in-memory sketches)
+        analytics.put("popularItems", popularItemsService.getPopularItems(vendorId, PopularItemsService.Window.MONTH, 10));
+
+        // Unique and returning customers (HyperLogLog estimates)
+        analytics.put("customers", customerSketchService.getCustomerStats(vendorId, startDate.toLocalDate(), endDate.toLocalDate()));
+
+        // Delivery duration and ETA error percentiles (HdrHistograms)
+        analytics.put("deliveryTimes", deliveryTimeService.getVendorDeliveryStats(vendorId, startDate.toLocalDate(), endDate.toLocalDate()));
 
         // Order status breakdown
         Map<String, Long> statusBreakdown = new HashMap<>();
@@ -56,33 +77,38 @@ public class AnalyticsService {
         }
         analytics.put("orderStatusBreakdown", statusBreakdown);
 
+        commitEvent(jfrEvent, "vendorAnalytics", vendorId, orders.size());
         return analytics;
     }
 
     public Map<String, Object> getPricePredictionData(Long vendorId) {
-        Map<String, Object> predictionData = new HashMap<>();
-
-        // Get historical pricing data
-        List<Order> recentOrders = orderRepository.findByVendorIdAndDateRange(
-                vendorId, 
-                LocalDateTime.now().minusMonths(3), 
-                LocalDateTime.now()
-        );
-
-        // Calculate average order values by time periods
-        Map<String, BigDecimal> monthlyAverages = new HashMap<>();
-        // Simplified calculation - in real implementation, you'd have more sophisticated ML models
-        
-        predictionData.put("historicalData", monthlyAverages);
-        // Use recentOrders to compute a simple count metric (prevents unused variable warning)
-        predictionData.put("recentOrderCount", recentOrders.size());
-        predictionData.put("suggestedPriceAdjustment", BigDecimal.ZERO);
-        predictionData.put("marketTrends", "stable");
+        AnalyticsQueryEvent jfrEvent = new AnalyticsQueryEvent();
+        jfrEvent.begin();
 
+        // Precomputed on a schedule from the daily item sales series; no order scan here
+        Map<String, Object> predictionData = pricePredictionService.getPrediction(vendorId);
+
+        commitEvent(jfrEvent, "pricePrediction", vendorId, 0);
         return predictionData;
     }
 
+    public Map<String, Object> getCustomerAnalytics(Long vendorId) {
+        AnalyticsQueryEvent jfrEvent = new AnalyticsQueryEvent();
+        jfrEvent.begin();
+
+        LocalDate today = LocalDate.now();
+        Map<String, Object> customerData = new HashMap<>();
+        customerData.put("day", customerSketchService.getCustomerStats(vendorId, today, today));
+        customerData.put("week", customerSketchService.getCustomerStats(vendorId, today.minusDays(6), today));
+        customerData.put("month", customerSketchService.getCustomerStats(vendorId, today.minusDays(29), today));
+
+        commitEvent(jfrEvent, "customerAnalytics", vendorId, 0);
+        return customerData;
+    }
+
     public Map<String, Object> getProfitAnalytics(Long vendorId, LocalDateTime startDate, LocalDateTime endDate) {
+        AnalyticsQueryEvent jfrEvent = new AnalyticsQueryEvent();
+        jfrEvent.begin();
         Map<String, Object> profitData = new HashMap<>();
 
         // Pull all orders for the period and compute monthly breakdown (exclude CANCELLED)
@@ -147,6 +173,16 @@ public class AnalyticsService {
         profitData.put("orderCount", totalOrders);
         profitData.put("monthlyData", monthlyData);
 
+        commitEvent(jfrEvent, "profitAnalytics", vendorId, periodOrders.size());
         return profitData;
     }
+
+    private void commitEvent(AnalyticsQueryEvent jfrEvent, String operation, Long vendorId, int ordersScanned) {
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.operation = operation;
+            jfrEvent.vendorId = vendorId;
+            jfrEvent.ordersScanned = ordersScanned;
+            jfrEvent.commit();
+        }
+    }
 }
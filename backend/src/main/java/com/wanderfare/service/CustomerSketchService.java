@@ -0,0 +1,317 @@
+package com.wanderfare.service;
+
+import com.wanderfare.analytics.HyperLogLog;
+import com.wanderfare.event.OrderCreatedEvent;
+import com.wanderfare.event.OrderStatusChangedEvent;
+import com.wanderfare.model.Order;
+import com.wanderfare.model.VendorCustomerSketch;
+import com.wanderfare.repository.VendorCustomerSketchRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Distinct-customer and repeat-customer analytics from per-vendor, per-day HyperLogLog sketches in
+ * vendor_customer_sketches. Orders update an in-memory sketch for their day, which is merged into
+ * the stored row on a short schedule; since merging is idempotent the live sketch is never reset,
+ * only the order count delta is. Any date range is answered by merging its day sketches.
+ * Cancelled orders are taken out of the order count; a customer whose only order was cancelled
+ * stays in the live sketch, since a sketch can't un-count anyone.
+ *
+ * Unique customers carry the HyperLogLog error (about 1.6% standard error, near exact below a few
+ * thousand). Returning customers are those who also ordered in the lookback days before the range,
+ * estimated as |range| + |before| - |range or before|; that difference inherits the error of the
+ * union, so it is least precise when the lookback population dwarfs the range.
+ */
+@Service
+public class CustomerSketchService {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerSketchService.class);
+
+    private static final String SEED_SQL =
+            "SELECT vendor_id, DATE(created_at), customer_id, COUNT(*) FROM orders " +
+            "WHERE created_at >= ? AND status <> 'CANCELLED' " +
+            "GROUP BY vendor_id, DATE(created_at), customer_id " +
+            "ORDER BY vendor_id, DATE(created_at)";
+
+    @Autowired
+    private VendorCustomerSketchRepository sketchRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${wanderfare.analytics.customers.lookback-days:90}")
+    private int lookbackDays;
+
+    @Value("${wanderfare.analytics.customers.seed-days:120}")
+    private int seedDays;
+
+    // vendor id -> epoch day -> sketch not yet fully flushed; only today's and yesterday's stay long
+    private final Map<Long, Map<Long, DaySketch>> live = new ConcurrentHashMap<>();
+
+    public CustomerSketchService(DataSource dataSource,
+                                 @Value("${wanderfare.analytics.customers.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    // Nodes starting together on an empty table may all seed; each day row is only inserted if
+    // absent, so whichever node gets there first writes it and the others skip it
+    @PostConstruct
+    public void seedIfEmpty() {
+        if (sketchRepository.count() > 0) {
+            return;
+        }
+        LocalDate since = LocalDate.now().minusDays(seedDays);
+        SeedCollector collector = new SeedCollector();
+        jdbcTemplate.query(SEED_SQL, collector::accept, since.atStartOfDay());
+        collector.finish();
+        log.info("Seeded {} customer sketches from orders since {} ({} already present)",
+                collector.written, since, collector.skipped);
+    }
+
+    // After commit so a rolled-back order never counts (a sketch can't un-count a customer)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        long customerId = order.getCustomer().getId();
+        update(order, sketch -> {
+            sketch.sketch.add(customerId);
+            sketch.pendingOrders++;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        boolean wasCancelled = event.getPreviousStatus() == Order.OrderStatus.CANCELLED;
+        boolean isCancelled = event.getNewStatus() == Order.OrderStatus.CANCELLED;
+        if (wasCancelled != isCancelled) {
+            update(event.getOrder(), sketch -> sketch.pendingOrders += isCancelled ? -1 : 1);
+        }
+    }
+
+    // Orders count on the day they were placed, whenever they are cancelled
+    private void update(Order order, Consumer<DaySketch> change) {
+        live.computeIfAbsent(order.getVendor().getId(), id -> new ConcurrentHashMap<>())
+                .compute(order.getCreatedAt().toLocalDate().toEpochDay(), (day, sketch) -> {
+                    DaySketch current = sketch != null ? sketch : new DaySketch();
+                    change.accept(current);
+                    current.dirty = true;
+                    return current;
+                });
+    }
+
+    /**
+     * Unique and returning customers for [startDate, endDate] (whole days, both inclusive).
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getCustomerStats(Long vendorId, LocalDate startDate, LocalDate endDate) {
+        LocalDate lookbackStart = startDate.minusDays(lookbackDays);
+        HyperLogLog range = new HyperLogLog();
+        HyperLogLog before = new HyperLogLog();
+        long[] orders = {0};
+
+        for (VendorCustomerSketch row : sketchRepository.findByVendorIdAndSketchDateBetween(vendorId, lookbackStart, endDate)) {
+            HyperLogLog sketch = HyperLogLog.fromBytes(row.getSketch());
+            if (row.getSketchDate().isBefore(startDate)) {
+                before.merge(sketch);
+            } else {
+                range.merge(sketch);
+                orders[0] += row.getOrderCount();
+            }
+        }
+
+        // Orders since the last flush; the stored rows already hold earlier ones, and re-merging
+        // their customers is harmless
+        Map<Long, DaySketch> days = live.get(vendorId);
+        if (days != null) {
+            for (Long day : days.keySet()) {
+                LocalDate date = LocalDate.ofEpochDay(day);
+                if (date.isBefore(lookbackStart) || date.isAfter(endDate)) {
+                    continue;
+                }
+                days.computeIfPresent(day, (d, sketch) -> {
+                    if (date.isBefore(startDate)) {
+                        before.merge(sketch.sketch);
+                    } else {
+                        range.merge(sketch.sketch);
+                        orders[0] += sketch.pendingOrders;
+                    }
+                    return sketch;
+                });
+            }
+        }
+
+        long unique = range.estimate();
+        HyperLogLog union = range.copy();
+        union.merge(before);
+        long returning = Math.max(0, Math.min(unique, unique + before.estimate() - union.estimate()));
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("uniqueCustomers", unique);
+        stats.put("returningCustomers", returning);
+        stats.put("repeatCustomerRate", unique > 0
+                ? BigDecimal.valueOf(returning * 100.0 / unique).setScale(1, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
+        stats.put("orders", orders[0]);
+        stats.put("ordersPerCustomer", unique > 0
+                ? BigDecimal.valueOf((double) orders[0] / unique).setScale(2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
+        stats.put("lookbackDays", lookbackDays);
+        stats.put("relativeStandardError", HyperLogLog.RELATIVE_STANDARD_ERROR);
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${wanderfare.analytics.customers.flush-interval-ms:60000}")
+    public void flush() {
+        long oldestKept = LocalDate.now().toEpochDay() - 1;
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        live.forEach((vendorId, days) -> {
+            for (Long day : days.keySet()) {
+                HyperLogLog[] snapshot = new HyperLogLog[1];
+                long[] orders = new long[1];
+                days.computeIfPresent(day, (d, sketch) -> {
+                    if (!sketch.dirty) {
+                        // Fully stored; older days won't receive more orders
+                        return d < oldestKept ? null : sketch;
+                    }
+                    snapshot[0] = sketch.sketch.copy();
+                    orders[0] = sketch.pendingOrders;
+                    sketch.pendingOrders = 0;
+                    sketch.dirty = false;
+                    return sketch;
+                });
+                if (snapshot[0] == null) {
+                    continue;
+                }
+                try {
+                    tx.executeWithoutResult(status -> store(vendorId, LocalDate.ofEpochDay(day), snapshot[0], orders[0]));
+                } catch (RuntimeException e) {
+                    days.compute(day, (d, sketch) -> {
+                        DaySketch current = sketch != null ? sketch : new DaySketch();
+                        current.sketch.merge(snapshot[0]);
+                        current.pendingOrders += orders[0];
+                        current.dirty = true;
+                        return current;
+                    });
+                    log.warn("Failed to store customer sketch for vendor {} on {}: {}",
+                            vendorId, LocalDate.ofEpochDay(day), e.getMessage());
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void store(Long vendorId, LocalDate date, HyperLogLog sketch, long orders) {
+        VendorCustomerSketch row = sketchRepository.findForUpdate(vendorId, date).orElse(null);
+        if (row == null) {
+            row = new VendorCustomerSketch();
+            row.setVendorId(vendorId);
+            row.setSketchDate(date);
+            row.setOrderCount(0L);
+        } else {
+            sketch.merge(HyperLogLog.fromBytes(row.getSketch()));
+        }
+        row.setSketch(sketch.toBytes());
+        row.setOrderCount(Math.max(0, row.getOrderCount() + orders));
+        sketchRepository.save(row);
+    }
+
+    private boolean insertIfAbsent(Long vendorId, LocalDate date, HyperLogLog sketch, long orders) {
+        if (sketchRepository.existsByVendorIdAndSketchDate(vendorId, date)) {
+            return false;
+        }
+        VendorCustomerSketch row = new VendorCustomerSketch();
+        row.setVendorId(vendorId);
+        row.setSketchDate(date);
+        row.setSketch(sketch.toBytes());
+        row.setOrderCount(orders);
+        sketchRepository.saveAndFlush(row);
+        return true;
+    }
+
+    private static class DaySketch {
+        private final HyperLogLog sketch = new HyperLogLog();
+        private long pendingOrders;
+        private boolean dirty;
+    }
+
+    // Builds one sketch per (vendor, day) from the grouped order stream, storing each as it completes
+    private class SeedCollector {
+        private final TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        private long vendorId = -1;
+        private LocalDate day;
+        private HyperLogLog sketch;
+        private long orders;
+        private int written;
+        private int skipped;
+
+        void accept(ResultSet rs) throws SQLException {
+            long rowVendor = rs.getLong(1);
+            Date rowDay = rs.getDate(2);
+            if (rowVendor != vendorId || !rowDay.toLocalDate().equals(day)) {
+                finish();
+                vendorId = rowVendor;
+                day = rowDay.toLocalDate();
+                sketch = new HyperLogLog();
+                orders = 0;
+            }
+            sketch.add(rs.getLong(3));
+            orders += rs.getLong(4);
+        }
+
+        void finish() {
+            if (sketch == null) {
+                return;
+            }
+            Long currentVendor = vendorId;
+            LocalDate currentDay = day;
+            HyperLogLog currentSketch = sketch;
+            long currentOrders = orders;
+            boolean inserted;
+            try {
+                inserted = Boolean.TRUE.equals(tx.execute(status ->
+                        insertIfAbsent(currentVendor, currentDay, currentSketch, currentOrders)));
+            } catch (DataIntegrityViolationException e) {
+                // Another node inserted the row between the check and the insert
+                inserted = false;
+            }
+            if (inserted) {
+                written++;
+            } else {
+                skipped++;
+            }
+            sketch = null;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.wanderfare.service;
+
+import com.wanderfare.model.Order;
+import com.wanderfare.repository.OrderRepository;
+import com.wanderfare.repository.VendorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Builds the admin dashboard by running its independent counters concurrently on a bounded
+ * executor. The composite result is cached for a short TTL, and concurrent callers that find the
+ * cache stale share a single in-flight refresh rather than each issuing their own queries.
+ * Snapshots and refreshes carry the generation they started in; {@link #invalidate()} bumps it, so
+ * a refresh that was already running when the data changed can't put its result back in place.
+ */
+@Service
+public class DashboardService {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    @Qualifier("dashboardExecutor")
+    private ThreadPoolTaskExecutor dashboardExecutor;
+
+    @Value("${wanderfare.dashboard.cache-ttl-ms:10000}")
+    private long cacheTtlMs;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicReference<Refresh> inFlight = new AtomicReference<>();
+
+    public Map<String, Object> getDashboardStats() {
+        long currentGeneration = generation.get();
+        Snapshot current = snapshot.get();
+        if (current != null && current.generation == currentGeneration
+                && System.currentTimeMillis() - current.createdAt < cacheTtlMs) {
+            return current.stats;
+        }
+
+        Refresh refresh = new Refresh(currentGeneration);
+        if (inFlight.compareAndSet(null, refresh)) {
+            try {
+                Map<String, Object> stats = computeStats();
+                snapshot.set(new Snapshot(stats, System.currentTimeMillis(), refresh.generation));
+                refresh.future.complete(stats);
+            } catch (RuntimeException e) {
+                refresh.future.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.set(null);
+            }
+            return refresh.future.join();
+        }
+
+        Refresh existing = inFlight.get();
+        if (existing == null) {
+            // The other refresh finished between our two reads
+            return getDashboardStats();
+        }
+        Map<String, Object> stats;
+        try {
+            stats = existing.future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+        // Started before the latest invalidation: its counts may predate the change, so don't reuse it
+        return existing.generation == generation.get() ? stats : getDashboardStats();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    private Map<String, Object> computeStats() {
+        CompletableFuture<Map<String, Long>> userStats =
+                CompletableFuture.supplyAsync(userService::getUserStatistics, dashboardExecutor);
+        CompletableFuture<Long> pendingVendors =
+                CompletableFuture.supplyAsync(() -> vendorRepository.countByIsApproved(false), dashboardExecutor);
+        CompletableFuture<Map<String, Long>> ordersByStatus =
+                CompletableFuture.supplyAsync(this::countOrdersByStatus, dashboardExecutor);
+        CompletableFuture<Map<String, Object>> revenue = CompletableFuture.supplyAsync(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            return revenueRollupService.getRevenueSummary(null, now.minusMonths(1), now);
+        }, dashboardExecutor);
+
+        try {
+            CompletableFuture.allOf(userStats, pendingVendors, ordersByStatus, revenue).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+
+        Map<String, Long> users = userStats.join();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("userStats", users);
+        stats.put("totalVendors", users.get("vendors"));
+        stats.put("totalCustomers", users.get("customers"));
+        stats.put("pendingVendors", pendingVendors.join());
+        stats.put("ordersByStatus", ordersByStatus.join());
+        stats.put("revenueLastMonth", revenue.join());
+        stats.put("generatedAt", LocalDateTime.now());
+        return Map.copyOf(stats);
+    }
+
+    private Map<String, Long> countOrdersByStatus() {
+        Map<String, Long> counts = new HashMap<>();
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            counts.put(status.name(), 0L);
+        }
+        for (Object[] row : orderRepository.countGroupedByStatus()) {
+            counts.put(((Order.OrderStatus) row[0]).name(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private static final class Snapshot {
+        private final Map<String, Object> stats;
+        private final long createdAt;
+        private final long generation;
+
+        private Snapshot(Map<String, Object> stats, long createdAt, long generation) {
+            this.stats = stats;
+            this.createdAt = createdAt;
+            this.generation = generation;
+        }
+    }
+
+    private static final class Refresh {
+        private final long generation;
+        private final CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+
+        private Refresh(long generation) {
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.wanderfare.service;
+
+import com.wanderfare.event.OrderStatusChangedEvent;
+import com.wanderfare.model.DeliveryTimeHistogram.Scope;
+import com.wanderfare.model.MenuItem;
+import com.wanderfare.model.Order;
+import com.wanderfare.model.OrderItem;
+import com.wanderfare.model.Vendor;
+import com.wanderfare.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivery ETAs for new orders, computed from in-memory state only:
+ *
+ *   kitchen  = longest preparationTime in the order + orders already PREPARING x minutes-per-queued-order
+ *   estimate = max(kitchen + transit-minutes, recent median placed-to-delivered time)
+ *
+ * The median comes from the delivery time histograms (vendor, else city, else the default) and
+ * is refreshed on a schedule, so a vendor whose deliveries usually take longer than the kitchen
+ * model suggests is never promised less than its typical time. The PREPARING count per vendor is
+ * kept with atomic counters on status transitions and resynced from the database periodically,
+ * which also corrects drift from transitions made on other nodes.
+ */
+@Service
+public class DeliveryEtaService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryEtaService.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DeliveryTimeService deliveryTimeService;
+
+    @Value("${wanderfare.eta.default-preparation-minutes:15}")
+    private int defaultPreparationMinutes;
+
+    @Value("${wanderfare.eta.minutes-per-queued-order:4}")
+    private int minutesPerQueuedOrder;
+
+    @Value("${wanderfare.eta.transit-minutes:20}")
+    private int transitMinutes;
+
+    @Value("${wanderfare.eta.default-minutes:45}")
+    private int defaultMinutes;
+
+    @Value("${wanderfare.eta.history-days:14}")
+    private int historyDays;
+
+    @Value("${wanderfare.eta.min-history-deliveries:20}")
+    private int minHistoryDeliveries;
+
+    // vendor id -> orders currently PREPARING
+    private final Map<Long, AtomicInteger> preparing = new ConcurrentHashMap<>();
+
+    // Median placed-to-delivered seconds, replaced wholesale on each refresh
+    private volatile Map<String, Long> vendorMedians = Map.of();
+    private volatile Map<String, Long> cityMedians = Map.of();
+
+    @PostConstruct
+    public void init() {
+        resyncQueueDepths();
+        refreshHistory();
+    }
+
+    public LocalDateTime estimateDeliveryTime(Vendor vendor, List<OrderItem> items, LocalDateTime placedAt) {
+        int preparationMinutes = 0;
+        for (OrderItem item : items) {
+            MenuItem menuItem = item.getMenuItem();
+            int minutes = menuItem.getPreparationTime() != null ? menuItem.getPreparationTime() : defaultPreparationMinutes;
+            // Items are cooked in parallel, so the slowest one sets the pace
+            preparationMinutes = Math.max(preparationMinutes, minutes);
+        }
+        long kitchenSeconds = (preparationMinutes + (long) getQueueDepth(vendor.getId()) * minutesPerQueuedOrder) * 60L;
+        long estimateSeconds = Math.max(kitchenSeconds + transitMinutes * 60L, historicalSeconds(vendor));
+        return placedAt.plusSeconds(estimateSeconds);
+    }
+
+    public int getQueueDepth(Long vendorId) {
+        AtomicInteger depth = preparing.get(vendorId);
+        return depth != null ? Math.max(0, depth.get()) : 0;
+    }
+
+    // After commit so a rolled-back transition never moves the counter
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Long vendorId = event.getOrder().getVendor().getId();
+        if (event.getPreviousStatus() == Order.OrderStatus.PREPARING) {
+            preparing.computeIfAbsent(vendorId, id -> new AtomicInteger()).decrementAndGet();
+        }
+        if (event.getNewStatus() == Order.OrderStatus.PREPARING) {
+            preparing.computeIfAbsent(vendorId, id -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${wanderfare.eta.resync-interval-ms:300000}",
+               initialDelayString = "${wanderfare.eta.resync-interval-ms:300000}")
+    public void resyncQueueDepths() {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Object[] row : orderRepository.countByVendorInStatuses(List.of(Order.OrderStatus.PREPARING))) {
+            counts.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+        // Transitions committed while the count ran may be lost or doubled until the next resync
+        for (Map.Entry<Long, AtomicInteger> entry : preparing.entrySet()) {
+            entry.getValue().set(counts.getOrDefault(entry.getKey(), 0));
+        }
+        counts.forEach((vendorId, count) -> preparing.computeIfAbsent(vendorId, id -> new AtomicInteger()).set(count));
+    }
+
+    @Scheduled(fixedDelayString = "${wanderfare.eta.history-refresh-interval-ms:600000}",
+               initialDelayString = "${wanderfare.eta.history-refresh-interval-ms:600000}")
+    public void refreshHistory() {
+        LocalDate today = LocalDate.now();
+        LocalDate since = today.minusDays(historyDays - 1L);
+        vendorMedians = deliveryTimeService.getMedianDurationSeconds(Scope.VENDOR, since, today, minHistoryDeliveries);
+        cityMedians = deliveryTimeService.getMedianDurationSeconds(Scope.CITY, since, today, minHistoryDeliveries);
+        log.debug("Refreshed delivery time medians for {} vendors and {} cities", vendorMedians.size(), cityMedians.size());
+    }
+
+    private long historicalSeconds(Vendor vendor) {
+        Long median = vendorMedians.get(vendor.getId().toString());
+        if (median == null) {
+            median = cityMedians.get(vendor.getCity() != null ? vendor.getCity() : "");
+        }
+        return median != null ? median : defaultMinutes * 60L;
+    }
+}
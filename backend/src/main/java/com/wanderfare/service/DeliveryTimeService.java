@@ -0,0 +1,376 @@
+package com.wanderfare.service;
+
+import com.wanderfare.analytics.DurationHistogram;
+import com.wanderfare.event.OrderStatusChangedEvent;
+import com.wanderfare.model.DeliveryTimeHistogram;
+import com.wanderfare.model.DeliveryTimeHistogram.Scope;
+import com.wanderfare.model.Order;
+import com.wanderfare.repository.DeliveryTimeHistogramRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivery duration (placed to delivered) and ETA error (delivered minus estimated) percentiles
+ * per vendor and per city, from per-day HdrHistograms in delivery_time_histograms. Each delivery
+ * is recorded into an in-memory histogram for its (scope, key, day); a short schedule moves those
+ * deltas into the stored rows. Histograms add exactly, so any date range is answered by summing
+ * its days, with values accurate to 1% (see DurationHistogram).
+ */
+@Service
+public class DeliveryTimeService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryTimeService.class);
+
+    private static final String SEED_SELECT =
+            "SELECT o.vendor_id, COALESCE(v.city, ''), DATE(o.actual_delivery_time), " +
+            "TIMESTAMPDIFF(SECOND, o.created_at, o.actual_delivery_time), " +
+            "TIMESTAMPDIFF(SECOND, o.estimated_delivery_time, o.actual_delivery_time) " +
+            "FROM orders o JOIN vendors v ON v.user_id = o.vendor_id " +
+            "WHERE o.status = 'DELIVERED' AND o.actual_delivery_time >= ? AND o.created_at IS NOT NULL ";
+
+    private static final String SEED_BY_VENDOR_SQL = SEED_SELECT + "ORDER BY o.vendor_id, DATE(o.actual_delivery_time)";
+    private static final String SEED_BY_CITY_SQL = SEED_SELECT + "ORDER BY COALESCE(v.city, ''), DATE(o.actual_delivery_time)";
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    @Autowired
+    private DeliveryTimeHistogramRepository histogramRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${wanderfare.analytics.delivery-times.seed-days:90}")
+    private int seedDays;
+
+    // Deliveries recorded since the last flush; entries are removed as they are stored
+    private final Map<HistogramKey, DayHistograms> live = new ConcurrentHashMap<>();
+
+    public DeliveryTimeService(DataSource dataSource,
+                               @Value("${wanderfare.analytics.delivery-times.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @PostConstruct
+    public void seedIfEmpty() {
+        if (histogramRepository.count() > 0) {
+            return;
+        }
+        LocalDate since = LocalDate.now().minusDays(seedDays);
+        // One pass per scope, each sorted so only the current (key, day) is held in memory
+        SeedCollector vendors = new SeedCollector(Scope.VENDOR);
+        jdbcTemplate.query(SEED_BY_VENDOR_SQL, vendors::accept, since.atStartOfDay());
+        vendors.finish();
+        SeedCollector cities = new SeedCollector(Scope.CITY);
+        jdbcTemplate.query(SEED_BY_CITY_SQL, cities::accept, since.atStartOfDay());
+        cities.finish();
+        log.info("Seeded {} vendor and {} city delivery time histograms from orders since {}",
+                vendors.written, cities.written, since);
+    }
+
+    // After commit so a rolled-back status change is never counted (histograms can't subtract)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Order order = event.getOrder();
+        // Only the first delivery; an order moved back to DELIVERED was already recorded
+        if (!event.isFirstDelivery() || order.getActualDeliveryTime() == null || order.getCreatedAt() == null) {
+            return;
+        }
+        LocalDateTime delivered = order.getActualDeliveryTime();
+        long durationSeconds = Duration.between(order.getCreatedAt(), delivered).getSeconds();
+        Long etaErrorSeconds = order.getEstimatedDeliveryTime() != null
+                ? Duration.between(order.getEstimatedDeliveryTime(), delivered).getSeconds()
+                : null;
+        long day = delivered.toLocalDate().toEpochDay();
+        String city = event.getVendorCity();
+
+        record(new HistogramKey(Scope.VENDOR, order.getVendor().getId().toString(), day), durationSeconds, etaErrorSeconds);
+        record(new HistogramKey(Scope.CITY, city != null ? city : "", day), durationSeconds, etaErrorSeconds);
+    }
+
+    /**
+     * Delivery time percentiles for one vendor over [startDate, endDate] (whole days, both inclusive).
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getVendorDeliveryStats(Long vendorId, LocalDate startDate, LocalDate endDate) {
+        String key = vendorId.toString();
+        DayHistograms total = new DayHistograms();
+        for (DeliveryTimeHistogram row : histogramRepository.findByScopeAndScopeKeyAndHistogramDateBetween(
+                Scope.VENDOR, key, startDate, endDate)) {
+            total.add(row);
+        }
+        addLive(Scope.VENDOR, key, startDate, endDate, total);
+        return total.describe();
+    }
+
+    /**
+     * Platform-wide and per-city delivery time percentiles over [startDate, endDate]. Every order
+     * belongs to exactly one city, so the overall figures are the sum of the city histograms.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getCityDeliveryStats(LocalDate startDate, LocalDate endDate) {
+        Map<String, DayHistograms> byCity = new TreeMap<>();
+        for (DeliveryTimeHistogram row : histogramRepository.findByScopeAndHistogramDateBetween(
+                Scope.CITY, startDate, endDate)) {
+            byCity.computeIfAbsent(row.getScopeKey(), city -> new DayHistograms()).add(row);
+        }
+        for (String city : liveKeys(Scope.CITY)) {
+            addLive(Scope.CITY, city, startDate, endDate, byCity.computeIfAbsent(city, c -> new DayHistograms()));
+        }
+
+        DayHistograms overall = new DayHistograms();
+        Map<String, Object> cities = new HashMap<>();
+        byCity.forEach((city, histograms) -> {
+            if (histograms.delivered > 0) {
+                overall.add(histograms);
+                cities.put(city.isEmpty() ? "UNKNOWN" : city, histograms.describe());
+            }
+        });
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("overall", overall.describe());
+        stats.put("cities", cities);
+        stats.put("startDate", startDate);
+        stats.put("endDate", endDate);
+        return stats;
+    }
+
+    /**
+     * Median placed-to-delivered seconds per vendor id or city name over [startDate, endDate], for
+     * keys with at least {@code minDeliveries} deliveries in the range.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> getMedianDurationSeconds(Scope scope, LocalDate startDate, LocalDate endDate, long minDeliveries) {
+        Map<String, DayHistograms> byKey = new HashMap<>();
+        for (DeliveryTimeHistogram row : histogramRepository.findByScopeAndHistogramDateBetween(scope, startDate, endDate)) {
+            byKey.computeIfAbsent(row.getScopeKey(), key -> new DayHistograms()).add(row);
+        }
+        for (String key : liveKeys(scope)) {
+            addLive(scope, key, startDate, endDate, byKey.computeIfAbsent(key, k -> new DayHistograms()));
+        }
+
+        Map<String, Long> medians = new HashMap<>();
+        byKey.forEach((key, histograms) -> {
+            if (histograms.delivered >= minDeliveries) {
+                medians.put(key, histograms.duration.valueAtPercentile(50));
+            }
+        });
+        return medians;
+    }
+
+    @Scheduled(fixedDelayString = "${wanderfare.analytics.delivery-times.flush-interval-ms:60000}")
+    public void flush() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (HistogramKey key : live.keySet()) {
+            // Histograms are deltas: take them out before storing so nothing is added twice
+            DayHistograms pending = live.remove(key);
+            if (pending == null) {
+                continue;
+            }
+            try {
+                tx.executeWithoutResult(status -> store(key.scope, key.scopeKey, LocalDate.ofEpochDay(key.day), pending));
+            } catch (RuntimeException e) {
+                live.merge(key, pending, (current, failed) -> {
+                    current.add(failed);
+                    return current;
+                });
+                log.warn("Failed to store delivery time histogram for {} {} on {}: {}",
+                        key.scope, key.scopeKey, LocalDate.ofEpochDay(key.day), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void record(HistogramKey key, long durationSeconds, Long etaErrorSeconds) {
+        live.compute(key, (k, histograms) -> {
+            DayHistograms current = histograms != null ? histograms : new DayHistograms();
+            current.record(durationSeconds, etaErrorSeconds);
+            return current;
+        });
+    }
+
+    private Set<String> liveKeys(Scope scope) {
+        Set<String> keys = new HashSet<>();
+        for (HistogramKey key : live.keySet()) {
+            if (key.scope == scope) {
+                keys.add(key.scopeKey);
+            }
+        }
+        return keys;
+    }
+
+    // Deliveries not flushed yet; copied under the map's per-key lock since recording mutates in place
+    private void addLive(Scope scope, String scopeKey, LocalDate startDate, LocalDate endDate, DayHistograms total) {
+        for (long day = startDate.toEpochDay(); day <= endDate.toEpochDay(); day++) {
+            live.computeIfPresent(new HistogramKey(scope, scopeKey, day), (k, histograms) -> {
+                total.add(histograms);
+                return histograms;
+            });
+        }
+    }
+
+    private void store(Scope scope, String scopeKey, LocalDate date, DayHistograms delta) {
+        DeliveryTimeHistogram row = histogramRepository.findForUpdate(scope, scopeKey, date).orElse(null);
+        DayHistograms merged = new DayHistograms();
+        if (row == null) {
+            row = new DeliveryTimeHistogram();
+            row.setScope(scope);
+            row.setScopeKey(scopeKey);
+            row.setHistogramDate(date);
+        } else {
+            merged.add(row);
+        }
+        merged.add(delta);
+        row.setDeliveredCount(merged.delivered);
+        row.setDurationHistogram(merged.duration.toBytes());
+        row.setEtaErrorHistogram(merged.etaError.toBytes());
+        histogramRepository.save(row);
+    }
+
+    private static BigDecimal minutes(double seconds) {
+        return BigDecimal.valueOf(seconds / 60.0).setScale(1, RoundingMode.HALF_UP);
+    }
+
+    private static Map<String, Object> percentiles(DurationHistogram histogram) {
+        Map<String, Object> values = new HashMap<>();
+        for (double percentile : PERCENTILES) {
+            values.put("p" + (int) percentile, minutes(histogram.valueAtPercentile(percentile)));
+        }
+        values.put("mean", minutes(histogram.getMean()));
+        values.put("count", histogram.getTotalCount());
+        return values;
+    }
+
+    private static class HistogramKey {
+        private final Scope scope;
+        private final String scopeKey;
+        private final long day;
+
+        HistogramKey(Scope scope, String scopeKey, long day) {
+            this.scope = scope;
+            this.scopeKey = scopeKey;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof HistogramKey other)) return false;
+            return day == other.day && scope == other.scope && scopeKey.equals(other.scopeKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scope, scopeKey, day);
+        }
+    }
+
+    private static class DayHistograms {
+        private final DurationHistogram duration = new DurationHistogram();
+        // Orders placed without an estimate are missing here, so its count can trail delivered
+        private final DurationHistogram etaError = new DurationHistogram();
+        private long delivered;
+
+        void record(long durationSeconds, Long etaErrorSeconds) {
+            duration.record(durationSeconds);
+            if (etaErrorSeconds != null) {
+                etaError.record(etaErrorSeconds);
+            }
+            delivered++;
+        }
+
+        void add(DayHistograms other) {
+            duration.add(other.duration);
+            etaError.add(other.etaError);
+            delivered += other.delivered;
+        }
+
+        void add(DeliveryTimeHistogram row) {
+            duration.add(DurationHistogram.fromBytes(row.getDurationHistogram()));
+            etaError.add(DurationHistogram.fromBytes(row.getEtaErrorHistogram()));
+            delivered += row.getDeliveredCount();
+        }
+
+        Map<String, Object> describe() {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("deliveredOrders", delivered);
+            stats.put("durationMinutes", percentiles(duration));
+            stats.put("etaErrorMinutes", percentiles(etaError));
+            return stats;
+        }
+    }
+
+    // Builds one histogram pair per (key, day) from the sorted delivery stream, storing each as it completes
+    private class SeedCollector {
+        private final Scope scope;
+        private final TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        private String scopeKey;
+        private LocalDate day;
+        private DayHistograms histograms;
+        private int written;
+
+        SeedCollector(Scope scope) {
+            this.scope = scope;
+        }
+
+        void accept(ResultSet rs) throws SQLException {
+            String rowKey = scope == Scope.VENDOR ? Long.toString(rs.getLong(1)) : rs.getString(2);
+            LocalDate rowDay = rs.getDate(3).toLocalDate();
+            if (!rowKey.equals(scopeKey) || !rowDay.equals(day)) {
+                finish();
+                scopeKey = rowKey;
+                day = rowDay;
+                histograms = new DayHistograms();
+            }
+            long durationSeconds = rs.getLong(4);
+            long etaErrorSeconds = rs.getLong(5);
+            histograms.record(durationSeconds, rs.wasNull() ? null : etaErrorSeconds);
+        }
+
+        void finish() {
+            if (histograms == null) {
+                return;
+            }
+            String currentKey = scopeKey;
+            LocalDate currentDay = day;
+            DayHistograms current = histograms;
+            tx.executeWithoutResult(status -> store(scope, currentKey, currentDay, current));
+            written++;
+            histograms = null;
+        }
+    }
+}
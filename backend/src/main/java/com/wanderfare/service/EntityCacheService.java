@@ -0,0 +1,78 @@
+package com.wanderfare.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reporting and manual eviction for the Hibernate second-level cache. Writes that go through the
+ * entity manager keep the cache consistent on their own; eviction is only needed after bulk or
+ * native SQL updates that Hibernate cannot see.
+ */
+@Service
+public class EntityCacheService {
+
+    public static final String USERS_REGION = "users";
+    public static final String MENU_ITEMS_REGION = "menuItems";
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+
+    private static final String[] REGIONS = {
+            USERS_REGION, MENU_ITEMS_REGION, QUERY_RESULTS_REGION
+    };
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public Map<String, Object> getCacheStatistics() {
+        Statistics statistics = sessionFactory().getStatistics();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : REGIONS) {
+            CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+            if (regionStats == null) {
+                continue;
+            }
+            regions.put(region, describe(regionStats.getHitCount(), regionStats.getMissCount(),
+                    regionStats.getPutCount(), regionStats.getElementCountInMemory()));
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        result.put("regions", regions);
+        result.put("secondLevel", describe(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount(), -1));
+        result.put("queryCache", describe(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount(), -1));
+        return result;
+    }
+
+    public void evictAll() {
+        Cache cache = sessionFactory().getCache();
+        cache.evictAllRegions();
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    private Map<String, Object> describe(long hits, long misses, long puts, long size) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("puts", puts);
+        long lookups = hits + misses;
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hits / lookups);
+        if (size >= 0) {
+            stats.put("size", size);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,332 @@
+package com.wanderfare.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wanderfare.dto.MenuItemDto;
+import com.wanderfare.model.MenuItem;
+import com.wanderfare.model.MenuItemPriceHistory;
+import com.wanderfare.model.Vendor;
+import com.wanderfare.repository.MenuItemRepository;
+import com.wanderfare.repository.VendorRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk menu import for one vendor. The body is parsed as a stream (CSV line by line, JSON array
+ * element by element), each row is validated like a single POST /vendors/menu, and valid rows are
+ * upserted by item name against the vendor's existing menu, which is loaded once up front; price
+ * changes to existing items are recorded in the price history as they would be for a PUT. All
+ * writes happen in one transaction and are flushed every JDBC batch, so Hibernate sends them as
+ * batched inserts/updates. Invalid rows are skipped and reported; malformed input aborts the import.
+ */
+@Service
+public class MenuImportService {
+
+    public enum Format {
+        CSV, JSON
+    }
+
+    private static final String[] CSV_COLUMNS = {
+            "name", "description", "price", "category", "isAvailable", "isVegetarian", "isVegan",
+            "isSpicy", "preparationTime", "imageUrl", "ingredients", "nutritionalInfo"
+    };
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Value("${wanderfare.menu.import.max-rows:5000}")
+    private int maxRows;
+
+    @Value("${wanderfare.menu.import.max-errors:100}")
+    private int maxErrors;
+
+    @Transactional
+    public Map<String, Object> importMenu(Long vendorId, Format format, InputStream in) throws IOException {
+        Vendor vendor = vendorRepository.findById(vendorId)
+                .orElseThrow(() -> new RuntimeException("Vendor not found"));
+
+        Map<String, MenuItem> existing = new HashMap<>();
+        for (MenuItem item : menuItemRepository.findByVendorId(vendorId)) {
+            existing.put(nameKey(item.getName()), item);
+        }
+
+        ImportRun run = new ImportRun(vendor, existing);
+        if (format == Format.JSON) {
+            readJson(in, run);
+        } else {
+            readCsv(in, run);
+        }
+        entityManager.flush();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("created", run.created);
+        result.put("updated", run.updated);
+        result.put("failed", run.failed);
+        result.put("errors", run.errors);
+        return result;
+    }
+
+    private void readJson(InputStream in, ImportRun run) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("Expected a JSON array of menu items");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                int row = run.nextRow();
+                // Read one element as a tree so a bad field only fails its own row
+                JsonNode node = objectMapper.readTree(parser);
+                MenuItemDto dto;
+                try {
+                    dto = objectMapper.treeToValue(node, MenuItemDto.class);
+                } catch (JsonProcessingException e) {
+                    run.reject(row, node.path("name").asText(null), e.getOriginalMessage());
+                    continue;
+                }
+                run.apply(row, dto);
+            }
+        }
+    }
+
+    private void readCsv(InputStream in, ImportRun run) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return;
+        }
+        List<String> header = parseCsvLine(headerLine.replace("\uFEFF", ""));
+        Map<String, String> known = new HashMap<>();
+        for (String column : CSV_COLUMNS) {
+            known.put(column.toLowerCase(Locale.ROOT), column);
+        }
+        String[] columns = new String[header.size()];
+        for (int i = 0; i < header.size(); i++) {
+            columns[i] = known.get(header.get(i).trim().toLowerCase(Locale.ROOT));
+        }
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int row = run.nextRow();
+            List<String> values = parseCsvLine(line);
+            MenuItemDto dto = new MenuItemDto();
+            try {
+                for (int i = 0; i < columns.length && i < values.size(); i++) {
+                    if (columns[i] != null) {
+                        setCsvField(dto, columns[i], values.get(i));
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                run.reject(row, dto.getName(), e.getMessage());
+                continue;
+            }
+            run.apply(row, dto);
+        }
+    }
+
+    private void setCsvField(MenuItemDto dto, String column, String raw) {
+        String value = raw.isEmpty() ? null : raw;
+        switch (column) {
+            case "name" -> dto.setName(value);
+            case "description" -> dto.setDescription(value);
+            case "price" -> dto.setPrice(value == null ? null : parse(column, value, BigDecimal::new));
+            case "category" -> dto.setCategory(value);
+            case "isAvailable" -> dto.setIsAvailable(parseBoolean(column, value));
+            case "isVegetarian" -> dto.setIsVegetarian(parseBoolean(column, value));
+            case "isVegan" -> dto.setIsVegan(parseBoolean(column, value));
+            case "isSpicy" -> dto.setIsSpicy(parseBoolean(column, value));
+            case "preparationTime" -> dto.setPreparationTime(value == null ? null : parse(column, value, Integer::valueOf));
+            case "imageUrl" -> dto.setImageUrl(value);
+            case "ingredients" -> dto.setIngredients(value);
+            case "nutritionalInfo" -> dto.setNutritionalInfo(value);
+            default -> { }
+        }
+    }
+
+    private <T> T parse(String column, String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + ": invalid number '" + value + "'");
+        }
+    }
+
+    private Boolean parseBoolean(String column, String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        if (normalized.equals("true") || normalized.equals("yes") || normalized.equals("1")) {
+            return true;
+        }
+        if (normalized.equals("false") || normalized.equals("no") || normalized.equals("0")) {
+            return false;
+        }
+        throw new IllegalArgumentException(column + ": invalid boolean '" + value + "'");
+    }
+
+    // RFC 4180 fields within a single line: quoted fields may contain commas and doubled quotes
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String nameKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private class ImportRun {
+        private final Vendor vendor;
+        private final Map<String, MenuItem> existing;
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+        private int rows;
+        private int created;
+        private int updated;
+        private int failed;
+        private int pending;
+
+        ImportRun(Vendor vendor, Map<String, MenuItem> existing) {
+            this.vendor = vendor;
+            this.existing = existing;
+        }
+
+        // Counts every row, including ones rejected while parsing, so the limit can't be bypassed
+        int nextRow() {
+            if (++rows > maxRows) {
+                throw new RuntimeException("Import exceeds the limit of " + maxRows + " rows");
+            }
+            return rows;
+        }
+
+        void apply(int row, MenuItemDto dto) {
+            Set<ConstraintViolation<MenuItemDto>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                reject(row, dto.getName(), violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            String key = nameKey(dto.getName());
+            MenuItem item = existing.get(key);
+            if (item == null) {
+                item = new MenuItem();
+                item.setVendor(vendor);
+                item.setIsAvailable(true);
+                copyFields(dto, item);
+                entityManager.persist(item);
+                existing.put(key, item);
+                created++;
+            } else {
+                BigDecimal oldPrice = item.getPrice();
+                copyFields(dto, item);
+                if (oldPrice.compareTo(item.getPrice()) != 0) {
+                    entityManager.persist(new MenuItemPriceHistory(item.getId(), vendor.getId(),
+                            oldPrice, item.getPrice(), LocalDateTime.now()));
+                }
+                updated++;
+            }
+
+            if (++pending >= batchSize) {
+                entityManager.flush();
+                pending = 0;
+            }
+        }
+
+        void reject(int row, String name, String message) {
+            failed++;
+            if (errors.size() >= maxErrors) {
+                return;
+            }
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("row", row);
+            error.put("name", name);
+            error.put("message", message);
+            errors.add(error);
+        }
+
+        // Columns left out of the import keep their current value (or the entity default)
+        private void copyFields(MenuItemDto dto, MenuItem item) {
+            item.setName(dto.getName().trim());
+            item.setPrice(dto.getPrice());
+            if (dto.getDescription() != null) item.setDescription(dto.getDescription());
+            if (dto.getCategory() != null) item.setCategory(dto.getCategory());
+            if (dto.getIsAvailable() != null) item.setIsAvailable(dto.getIsAvailable());
+            if (dto.getIsVegetarian() != null) item.setIsVegetarian(dto.getIsVegetarian());
+            if (dto.getIsVegan() != null) item.setIsVegan(dto.getIsVegan());
+            if (dto.getIsSpicy() != null) item.setIsSpicy(dto.getIsSpicy());
+            if (dto.getPreparationTime() != null) item.setPreparationTime(dto.getPreparationTime());
+            if (dto.getImageUrl() != null) item.setImageUrl(dto.getImageUrl());
+            if (dto.getIngredients() != null) item.setIngredients(dto.getIngredients());
+            if (dto.getNutritionalInfo() != null) item.setNutritionalInfo(dto.getNutritionalInfo());
+        }
+    }
+}
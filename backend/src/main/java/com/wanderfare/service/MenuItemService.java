@@ -1,10 +1,18 @@
 package com.wanderfare.service;
 
 import com.wanderfare.dto.MenuItemDto;
+import com.wanderfare.dto.PriceAdjustmentRequest;
 import com.wanderfare.model.MenuItem;
+import com.wanderfare.model.MenuItemPriceHistory;
 import com.wanderfare.model.Vendor;
+import com.wanderfare.repository.MenuItemPriceHistoryRepository;
 import com.wanderfare.repository.MenuItemRepository;
 import com.wanderfare.repository.VendorRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -14,7 +22,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -28,9 +39,16 @@ public class MenuItemService {
     @Autowired
     private VendorRepository vendorRepository;
 
+    @Autowired
+    private MenuItemPriceHistoryRepository priceHistoryRepository;
+
     @Autowired
     private ModelMapper modelMapper;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
     public List<MenuItemDto> getMenuItemsByVendor(Long vendorId) {
         return menuItemRepository.findAvailableByVendorId(vendorId)
                 .stream()
@@ -38,6 +56,7 @@ public class MenuItemService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public Page<MenuItemDto> getMenuItemsByVendorWithFilters(Long vendorId, String category, 
                                                             Boolean isVegetarian, Boolean isVegan, 
                                                             BigDecimal maxPrice, int page, int size) {
@@ -47,6 +66,7 @@ public class MenuItemService {
                 .map(item -> modelMapper.map(item, MenuItemDto.class));
     }
 
+    @Transactional(readOnly = true)
     public List<MenuItemDto> searchMenuItems(Long vendorId, String searchTerm) {
         return menuItemRepository.searchByVendorAndName(vendorId, searchTerm)
                 .stream()
@@ -54,11 +74,25 @@ public class MenuItemService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public Optional<MenuItemDto> getMenuItemById(Long id) {
         return menuItemRepository.findById(id)
                 .map(item -> modelMapper.map(item, MenuItemDto.class));
     }
 
+    // Available items of one vendor in the order of the given ids; served from the entity cache
+    @Transactional(readOnly = true)
+    public List<MenuItemDto> getAvailableMenuItemsByIds(Long vendorId, List<Long> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(MenuItem.class)
+                .multiLoad(ids)
+                .stream()
+                .filter(item -> item != null && Boolean.TRUE.equals(item.getIsAvailable())
+                        && item.getVendor().getId().equals(vendorId))
+                .map(item -> modelMapper.map(item, MenuItemDto.class))
+                .collect(Collectors.toList());
+    }
+
     public Optional<MenuItem> getMenuItemEntityById(Long id) {
         return menuItemRepository.findById(id);
     }
@@ -79,6 +113,11 @@ public class MenuItemService {
         MenuItem existingItem = menuItemRepository.findById(itemId)
                 .orElseThrow(() -> new RuntimeException("Menu item not found"));
 
+        if (menuItemDto.getPrice() != null && existingItem.getPrice().compareTo(menuItemDto.getPrice()) != 0) {
+            priceHistoryRepository.save(new MenuItemPriceHistory(existingItem.getId(), existingItem.getVendor().getId(),
+                    existingItem.getPrice(), menuItemDto.getPrice(), LocalDateTime.now()));
+        }
+
         // Update fields
         existingItem.setName(menuItemDto.getName());
         existingItem.setDescription(menuItemDto.getDescription());
@@ -97,6 +136,64 @@ public class MenuItemService {
         return modelMapper.map(savedItem, MenuItemDto.class);
     }
 
+    /**
+     * Reprices a vendor's items with set-based statements in one transaction: the matched rows are
+     * locked with SELECT ... FOR UPDATE, then the history rows are written by INSERT ... SELECT with
+     * the same price expression and filter as the UPDATE that follows, so a concurrent price change
+     * can't slip in between them. The writes declare their tables as query spaces, so Hibernate
+     * invalidates the MenuItem cache region (and the menu query results) once, instead of every
+     * region or every item.
+     */
+    public Map<String, Object> adjustPrices(Long vendorId, PriceAdjustmentRequest request) {
+        String newPrice;
+        if (request.getMode() == PriceAdjustmentRequest.Mode.PERCENTAGE) {
+            if (request.getAmount().compareTo(new BigDecimal("-100")) <= 0) {
+                throw new RuntimeException("Percentage decrease must be less than 100");
+            }
+            newPrice = "GREATEST(0.01, ROUND(m.price * (100 + :amount) / 100, 2))";
+        } else {
+            newPrice = "GREATEST(0.01, ROUND(m.price + :amount, 2))";
+        }
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("vendorId", vendorId);
+        StringBuilder where = new StringBuilder(" WHERE m.vendor_id = :vendorId");
+        if (request.getCategory() != null && !request.getCategory().isBlank()) {
+            where.append(" AND m.category = :category");
+            params.put("category", request.getCategory());
+        }
+        if (request.getItemIds() != null && !request.getItemIds().isEmpty()) {
+            where.append(" AND m.id IN (:itemIds)");
+            params.put("itemIds", request.getItemIds());
+        }
+
+        // Lock the matched rows first so the history and the update both see the same prices
+        Query lock = entityManager.createNativeQuery("SELECT m.id FROM menu_items m" + where + " FOR UPDATE");
+        params.forEach(lock::setParameter);
+        lock.getResultList();
+
+        // Rows whose price would not change produce no history and no write
+        where.append(" AND m.price <> ").append(newPrice);
+        params.put("amount", request.getAmount());
+
+        Query history = entityManager.createNativeQuery(
+                "INSERT INTO menu_item_price_history (menu_item_id, vendor_id, old_price, new_price, changed_at) " +
+                "SELECT m.id, m.vendor_id, m.price, " + newPrice + ", NOW(6) FROM menu_items m" + where);
+        history.unwrap(NativeQuery.class).addSynchronizedQuerySpace("menu_item_price_history");
+        params.forEach(history::setParameter);
+        history.executeUpdate();
+
+        Query update = entityManager.createNativeQuery(
+                "UPDATE menu_items m SET m.price = " + newPrice + ", m.updated_at = NOW(6)" + where);
+        update.unwrap(NativeQuery.class).addSynchronizedEntityClass(MenuItem.class);
+        params.forEach(update::setParameter);
+        int updated = update.executeUpdate();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("updatedItems", updated);
+        return result;
+    }
+
     public void deleteMenuItem(Long itemId) {
         MenuItem menuItem = menuItemRepository.findById(itemId)
                 .orElseThrow(() -> new RuntimeException("Menu item not found"));
@@ -110,10 +207,12 @@ public class MenuItemService {
         menuItemRepository.save(menuItem);
     }
 
+    @Transactional(readOnly = true)
     public List<String> getCategoriesByVendor(Long vendorId) {
         return menuItemRepository.findCategoriesByVendorId(vendorId);
     }
 
+    @Transactional(readOnly = true)
     public List<MenuItemDto> getVegetarianItems(Long vendorId) {
         return menuItemRepository.findByVendorIdAndIsAvailable(vendorId, true)
                 .stream()
@@ -122,6 +221,7 @@ public class MenuItemService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<MenuItemDto> getVeganItems(Long vendorId) {
         return menuItemRepository.findByVendorIdAndIsAvailable(vendorId, true)
                 .stream()
@@ -130,6 +230,7 @@ public class MenuItemService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<MenuItemDto> getItemsByCategory(Long vendorId, String category) {
         return menuItemRepository.findByVendorIdAndIsAvailable(vendorId, true)
                 .stream()
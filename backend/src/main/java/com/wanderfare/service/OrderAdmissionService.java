@@ -0,0 +1,138 @@
+package com.wanderfare.service;
+
+import com.wanderfare.event.OrderStatusChangedEvent;
+import com.wanderfare.exception.TooManyRequestsException;
+import com.wanderfare.model.Order;
+import com.wanderfare.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-vendor cap on active (PENDING, CONFIRMED or PREPARING) orders. Each vendor has a count that
+ * a new order claims a slot on, atomically under the map's per-key compute, before anything is read
+ * or written; a vendor at the cap gets a 429 with a Retry-After hint instead of another row in
+ * orders. Slots are released when the creating transaction doesn't commit and when an order leaves
+ * the active statuses.
+ *
+ * Counts are rebuilt from the orders table at startup and resynced periodically, which also folds
+ * in orders placed or progressed on other nodes; an order admitted while a resync runs may be
+ * missed until the next one. The cap is enforced per node: between resyncs each node admits up to
+ * the cap on its own, so a cluster of N nodes can hold up to N x the cap active orders per vendor.
+ */
+@Service
+public class OrderAdmissionService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderAdmissionService.class);
+
+    private static final Set<Order.OrderStatus> ACTIVE = EnumSet.of(
+            Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED, Order.OrderStatus.PREPARING);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Value("${wanderfare.orders.admission.max-active-per-vendor:50}")
+    private int maxActivePerVendor;
+
+    @Value("${wanderfare.orders.admission.retry-after-seconds:60}")
+    private long retryAfterSeconds;
+
+    // vendor id -> active orders; only ever changed under compute/merge, so resync replacing an
+    // entry can't lose a concurrent admit or release
+    private final Map<Long, Integer> active = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        resync();
+    }
+
+    /**
+     * Claims a slot for a new order, or throws TooManyRequestsException when the vendor is at
+     * capacity. Inside a transaction the slot is handed back automatically on rollback.
+     */
+    public void admit(Long vendorId) {
+        if (maxActivePerVendor <= 0) {
+            return;
+        }
+        // Throwing from compute leaves the entry unchanged
+        active.compute(vendorId, (id, count) -> {
+            int current = count != null ? count : 0;
+            if (current >= maxActivePerVendor) {
+                throw new TooManyRequestsException(
+                        "This vendor is not accepting more orders right now, please try again shortly",
+                        retryAfterSeconds);
+            }
+            return current + 1;
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(vendorId);
+                    }
+                }
+            });
+        }
+    }
+
+    public int getActiveOrders(Long vendorId) {
+        return active.getOrDefault(vendorId, 0);
+    }
+
+    // After commit so a rolled-back transition never moves the counter
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        boolean wasActive = ACTIVE.contains(event.getPreviousStatus());
+        boolean isActive = ACTIVE.contains(event.getNewStatus());
+        if (wasActive == isActive) {
+            return;
+        }
+        Long vendorId = event.getOrder().getVendor().getId();
+        if (wasActive) {
+            release(vendorId);
+        } else {
+            // Moved back into an active status; counted even if it takes the vendor over the cap
+            active.merge(vendorId, 1, Integer::sum);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${wanderfare.orders.admission.resync-interval-ms:300000}",
+               initialDelayString = "${wanderfare.orders.admission.resync-interval-ms:300000}")
+    public void resync() {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Object[] row : orderRepository.countByVendorInStatuses(ACTIVE)) {
+            counts.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+        // Each entry is replaced under compute; vendors without active orders are dropped, which
+        // also clears ids admitted for orders that failed validation (admit runs before the vendor
+        // is looked up)
+        Set<Long> vendorIds = new HashSet<>(active.keySet());
+        vendorIds.addAll(counts.keySet());
+        for (Long vendorId : vendorIds) {
+            active.compute(vendorId, (id, current) -> counts.get(id));
+        }
+        log.debug("Resynced active order counts for {} vendors", counts.size());
+    }
+
+    private void release(Long vendorId) {
+        // Never below zero, e.g. for an order admitted before the last resync
+        active.computeIfPresent(vendorId, (id, count) -> Math.max(0, count - 1));
+    }
+}
@@ -0,0 +1,150 @@
+package com.wanderfare.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Streams a vendor's full order history (one row per order line) straight from a forward-only
+ * JDBC cursor to the response. Rows are written as they are fetched, so heap use is bounded by the
+ * fetch size rather than the number of orders. Relies on useCursorFetch=true in the MySQL URL;
+ * without it Connector/J would buffer the whole result set client-side.
+ */
+@Service
+public class OrderExportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final String EXPORT_SQL =
+            "SELECT o.id, o.order_number, o.created_at, o.status, o.payment_status, o.total_amount, " +
+            "o.delivery_fee, o.tax_amount, o.final_amount, oi.menu_item_id, m.name AS menu_item_name, " +
+            "oi.quantity, oi.unit_price, oi.total_price " +
+            "FROM orders o " +
+            "JOIN order_items oi ON oi.order_id = o.id " +
+            "LEFT JOIN menu_items m ON m.id = oi.menu_item_id " +
+            "WHERE o.vendor_id = ? " +
+            "ORDER BY o.created_at, o.id, oi.id";
+
+    private static final String[] COLUMNS = {
+            "orderId", "orderNumber", "createdAt", "status", "paymentStatus", "totalAmount",
+            "deliveryFee", "taxAmount", "finalAmount", "menuItemId", "menuItemName",
+            "quantity", "unitPrice", "totalPrice"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public OrderExportService(DataSource dataSource,
+                              @Value("${wanderfare.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportVendorOrders(Long vendorId, Format format, OutputStream out) throws IOException {
+        try {
+            if (format == Format.NDJSON) {
+                writeNdjson(vendorId, out);
+            } else {
+                writeCsv(vendorId, out);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeCsv(Long vendorId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(String.join(",", COLUMNS));
+        writer.write('\n');
+        jdbcTemplate.query(EXPORT_SQL, rs -> {
+            try {
+                for (int i = 1; i <= COLUMNS.length; i++) {
+                    if (i > 1) {
+                        writer.write(',');
+                    }
+                    writeCsvValue(writer, rs, i);
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, vendorId);
+        writer.flush();
+    }
+
+    private void writeCsvValue(Writer writer, ResultSet rs, int column) throws SQLException, IOException {
+        Object value = rs.getObject(column);
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof Timestamp ts ? ts.toLocalDateTime().toString() : value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(text);
+        }
+    }
+
+    private void writeNdjson(Long vendorId, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.setRootValueSeparator(null);
+        jdbcTemplate.query(EXPORT_SQL, rs -> {
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("orderId", rs.getLong(1));
+                generator.writeStringField("orderNumber", rs.getString(2));
+                Timestamp createdAt = rs.getTimestamp(3);
+                generator.writeStringField("createdAt", createdAt != null ? createdAt.toLocalDateTime().toString() : null);
+                generator.writeStringField("status", rs.getString(4));
+                generator.writeStringField("paymentStatus", rs.getString(5));
+                writeDecimal(generator, "totalAmount", rs.getBigDecimal(6));
+                writeDecimal(generator, "deliveryFee", rs.getBigDecimal(7));
+                writeDecimal(generator, "taxAmount", rs.getBigDecimal(8));
+                writeDecimal(generator, "finalAmount", rs.getBigDecimal(9));
+                generator.writeNumberField("menuItemId", rs.getLong(10));
+                generator.writeStringField("menuItemName", rs.getString(11));
+                generator.writeNumberField("quantity", rs.getInt(12));
+                writeDecimal(generator, "unitPrice", rs.getBigDecimal(13));
+                writeDecimal(generator, "totalPrice", rs.getBigDecimal(14));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, vendorId);
+        generator.flush();
+    }
+
+    private void writeDecimal(JsonGenerator generator, String field, BigDecimal value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeNumberField(field, value);
+        }
+    }
+}
@@ -1,21 +1,35 @@
 package com.wanderfare.service;
 
+import com.wanderfare.dto.CursorSlice;
 import com.wanderfare.dto.OrderDto;
+import com.wanderfare.event.OrderCreatedEvent;
+import com.wanderfare.event.OrderStatusChangedEvent;
+import com.wanderfare.metrics.DtoMappingEvent;
+import com.wanderfare.metrics.OrderCreationEvent;
 import com.wanderfare.model.*;
 import com.wanderfare.repository.*;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,24 +39,40 @@ public class OrderService {
     @Autowired
     private OrderRepository orderRepository;
 
-    @Autowired
-    private OrderItemRepository orderItemRepository;
-
     @Autowired
     private CustomerRepository customerRepository;
 
     @Autowired
     private VendorRepository vendorRepository;
 
-    @Autowired
-    private MenuItemRepository menuItemRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DeliveryEtaService deliveryEtaService;
+
+    @Autowired
+    private OrderAdmissionService orderAdmissionService;
+
     private static final BigDecimal TAX_RATE = new BigDecimal("0.08"); // 8% tax
 
+    @Timed(value = "wanderfare.orders.create", histogram = true)
     public OrderDto createOrder(Long customerId, OrderDto orderDto) {
+        OrderCreationEvent jfrEvent = new OrderCreationEvent();
+        jfrEvent.begin();
+
+        if (orderDto.getVendorId() == null) {
+            throw new RuntimeException("Vendor is required");
+        }
+        // Shed load before anything is read or written; the slot is released if this transaction rolls back
+        orderAdmissionService.admit(orderDto.getVendorId());
+
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
 
@@ -58,15 +88,38 @@ public class OrderService {
         order.setStatus(Order.OrderStatus.PENDING);
         order.setPaymentStatus(Order.PaymentStatus.PENDING);
 
-        // Calculate totals
+        // Load all referenced menu items in one round trip; multiLoad serves hits from the
+        // second-level cache and only queries for the misses (findAllById would bypass it)
+        List<Long> menuItemIds = orderDto.getOrderItems().stream()
+                .map(OrderDto.OrderItemDto::getMenuItemId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, MenuItem> menuItems = entityManager.unwrap(Session.class)
+                .byMultipleIds(MenuItem.class)
+                .multiLoad(menuItemIds).stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(MenuItem::getId, Function.identity()));
+
+        // Build order items and calculate totals
         BigDecimal subtotal = BigDecimal.ZERO;
         
         for (OrderDto.OrderItemDto itemDto : orderDto.getOrderItems()) {
-            MenuItem menuItem = menuItemRepository.findById(itemDto.getMenuItemId())
-                    .orElseThrow(() -> new RuntimeException("Menu item not found"));
+            MenuItem menuItem = menuItems.get(itemDto.getMenuItemId());
+            if (menuItem == null) {
+                throw new RuntimeException("Menu item not found");
+            }
             
             BigDecimal itemTotal = menuItem.getPrice().multiply(new BigDecimal(itemDto.getQuantity()));
             subtotal = subtotal.add(itemTotal);
+
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setMenuItem(menuItem);
+            orderItem.setQuantity(itemDto.getQuantity());
+            orderItem.setUnitPrice(menuItem.getPrice());
+            orderItem.setTotalPrice(itemTotal);
+            orderItem.setSpecialInstructions(itemDto.getSpecialInstructions());
+            order.getOrderItems().add(orderItem);
         }
 
         BigDecimal deliveryFee = vendor.getDeliveryFee() != null ? vendor.getDeliveryFee() : BigDecimal.ZERO;
@@ -77,29 +130,26 @@ public class OrderService {
         order.setDeliveryFee(deliveryFee);
         order.setTaxAmount(taxAmount);
         order.setFinalAmount(finalAmount);
-        order.setEstimatedDeliveryTime(LocalDateTime.now().plusMinutes(45)); // Default 45 min
+        // Prep times, the vendor's live PREPARING queue and recent delivery history; all in memory
+        order.setEstimatedDeliveryTime(deliveryEtaService.estimateDeliveryTime(
+                vendor, order.getOrderItems(), LocalDateTime.now()));
 
+        // Items cascade from the order; ids come from the pooled sequences, so the order and all
+        // of its lines are written as batched inserts at flush
         Order savedOrder = orderRepository.save(order);
 
-        // Create order items
-        for (OrderDto.OrderItemDto itemDto : orderDto.getOrderItems()) {
-            MenuItem menuItem = menuItemRepository.findById(itemDto.getMenuItemId())
-                    .orElseThrow(() -> new RuntimeException("Menu item not found"));
+        eventPublisher.publishEvent(new OrderCreatedEvent(savedOrder));
 
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(savedOrder);
-            orderItem.setMenuItem(menuItem);
-            orderItem.setQuantity(itemDto.getQuantity());
-            orderItem.setUnitPrice(menuItem.getPrice());
-            orderItem.setTotalPrice(menuItem.getPrice().multiply(new BigDecimal(itemDto.getQuantity())));
-            orderItem.setSpecialInstructions(itemDto.getSpecialInstructions());
-
-            orderItemRepository.save(orderItem);
-        }
+        jfrEvent.vendorId = vendor.getId();
+        jfrEvent.lineCount = savedOrder.getOrderItems().size();
+        jfrEvent.orderId = savedOrder.getId();
+        jfrEvent.commit();
 
         return convertToDto(savedOrder);
     }
 
+    // Read-write on purpose: clients fetch an order straight after placing or updating it, so
+    // these lookups stay on the primary instead of racing replica lag
     public Optional<OrderDto> getOrderById(Long orderId) {
         return orderRepository.findById(orderId)
                 .map(this::convertToDto);
@@ -110,18 +160,25 @@ public class OrderService {
                 .map(this::convertToDto);
     }
 
-    public Page<OrderDto> getCustomerOrders(Long customerId, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return orderRepository.findByCustomerId(customerId, pageable)
-                .map(this::convertToDto);
+    @Transactional(readOnly = true)
+    public CursorSlice<OrderDto> getCustomerOrders(Long customerId, String cursor, int size) {
+        OrderCursor position = OrderCursor.decode(cursor);
+        PageRequest page = PageRequest.of(0, size);
+        return toCursorSlice(position == null
+                ? orderRepository.findFirstByCustomerId(customerId, page)
+                : orderRepository.findByCustomerIdBefore(customerId, position.createdAt, position.id, page));
     }
 
-    public Page<OrderDto> getVendorOrders(Long vendorId, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return orderRepository.findByVendorId(vendorId, pageable)
-                .map(this::convertToDto);
+    @Transactional(readOnly = true)
+    public CursorSlice<OrderDto> getVendorOrders(Long vendorId, String cursor, int size) {
+        OrderCursor position = OrderCursor.decode(cursor);
+        PageRequest page = PageRequest.of(0, size);
+        return toCursorSlice(position == null
+                ? orderRepository.findFirstByVendorId(vendorId, page)
+                : orderRepository.findByVendorIdBefore(vendorId, position.createdAt, position.id, page));
     }
 
+    @Transactional(readOnly = true)
     public List<OrderDto> getOrdersByStatus(Order.OrderStatus status) {
         return orderRepository.findByStatus(status)
                 .stream()
@@ -133,13 +190,19 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
 
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(newStatus);
         
-        if (newStatus == Order.OrderStatus.DELIVERED) {
+        // An order moved back to DELIVERED after a correction keeps its original delivery time
+        boolean firstDelivery = newStatus == Order.OrderStatus.DELIVERED && order.getActualDeliveryTime() == null;
+        if (firstDelivery) {
             order.setActualDeliveryTime(LocalDateTime.now());
         }
 
         Order savedOrder = orderRepository.save(order);
+        if (previousStatus != newStatus) {
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(savedOrder, previousStatus, firstDelivery));
+        }
         return convertToDto(savedOrder);
     }
 
@@ -160,8 +223,12 @@ public class OrderService {
             throw new RuntimeException("Cannot cancel delivered order");
         }
 
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(Order.OrderStatus.CANCELLED);
-        orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        if (previousStatus != Order.OrderStatus.CANCELLED) {
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(savedOrder, previousStatus, false));
+        }
     }
 
     public OrderDto reorderPreviousOrder(Long customerId, Long originalOrderId) {
@@ -196,18 +263,69 @@ public class OrderService {
         return createOrder(customerId, newOrderDto);
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal calculateVendorRevenue(Long vendorId, LocalDateTime startDate, LocalDateTime endDate) {
         BigDecimal revenue = orderRepository.calculateVendorRevenue(vendorId, startDate, endDate);
         return revenue != null ? revenue : BigDecimal.ZERO;
     }
 
-    public Page<OrderDto> getAllOrders(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        return orderRepository.findAllOrderByCreatedAtDesc(pageable)
-                .map(this::convertToDto);
+    @Transactional(readOnly = true)
+    public CursorSlice<OrderDto> getAllOrders(String cursor, int size) {
+        OrderCursor position = OrderCursor.decode(cursor);
+        PageRequest page = PageRequest.of(0, size);
+        return toCursorSlice(position == null
+                ? orderRepository.findFirst(page)
+                : orderRepository.findAllBefore(position.createdAt, position.id, page));
+    }
+
+    private CursorSlice<OrderDto> toCursorSlice(Slice<Order> slice) {
+        List<Order> orders = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !orders.isEmpty()) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<OrderDto> content = orders.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        return new CursorSlice<>(content, slice.getSize(), slice.hasNext(), nextCursor);
+    }
+
+    // Opaque continuation token: base64url("<createdAt>|<id>") of the last row returned
+    private static final class OrderCursor {
+        private final LocalDateTime createdAt;
+        private final Long id;
+
+        private OrderCursor(LocalDateTime createdAt, Long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        private String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Null for the first page
+        private static OrderCursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new RuntimeException("Invalid pagination cursor");
+            }
+        }
     }
 
     private OrderDto convertToDto(Order order) {
+        DtoMappingEvent jfrEvent = new DtoMappingEvent();
+        jfrEvent.begin();
+
         OrderDto dto = modelMapper.map(order, OrderDto.class);
         dto.setCustomerId(order.getCustomer().getId());
         dto.setVendorId(order.getVendor().getId());
@@ -230,6 +348,10 @@ public class OrderService {
                 : new java.util.ArrayList<>();
 
         dto.setOrderItems(orderItemDtos);
+
+        jfrEvent.dtoType = "OrderDto";
+        jfrEvent.entityId = order.getId();
+        jfrEvent.commit();
         return dto;
     }
 }
@@ -0,0 +1,339 @@
+package com.wanderfare.service;
+
+import com.wanderfare.analytics.SpaceSavingSketch;
+import com.wanderfare.event.OrderCreatedEvent;
+import com.wanderfare.model.MenuItem;
+import com.wanderfare.model.Order;
+import com.wanderfare.model.OrderItem;
+import com.wanderfare.repository.OrderItemRepository;
+import com.wanderfare.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-vendor best sellers over the current day, week (today plus the 6 days before) and month
+ * (today plus the 29 days before), kept in memory as one Space-Saving sketch per vendor per day.
+ * Completed days are pre-merged once per day, so a query merges two fixed-size sketches and costs
+ * O(capacity) regardless of order volume. Counts are estimates: each may overshoot by the reported
+ * error, and items selling less than 1/capacity of a window's volume may be missing.
+ *
+ * Sketches are checkpointed to disk together with the highest order id they include, and
+ * reloaded at startup; orders with a higher id (or all of the last 30 days when there is no
+ * checkpoint) are replayed from order_items. The id and the sketches are captured under one write
+ * lock that order events also take, so each order is either in the checkpoint or replayed, not
+ * both. Ids come from per-node pooled blocks, so an order still uncommitted at checkpoint time
+ * whose id is below the mark can be missed after a restart.
+ *
+ * State is per node: live updates only see the orders committed on this node, while the startup
+ * replay reads every node's orders. Behind a load balancer each node's counts are therefore a
+ * share of the platform's sales, which keeps rankings usable but understates quantities.
+ */
+@Service
+public class PopularItemsService {
+
+    private static final Logger log = LoggerFactory.getLogger(PopularItemsService.class);
+
+    private static final int CHECKPOINT_MAGIC = 0x57465053; // "WFPS"
+    private static final int CHECKPOINT_VERSION = 2;
+    private static final int RETAINED_DAYS = 30;
+
+    public enum Window {
+        DAY(1), WEEK(7), MONTH(30);
+
+        private final int days;
+
+        Window(int days) {
+            this.days = days;
+        }
+
+        public int getDays() {
+            return days;
+        }
+    }
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${wanderfare.analytics.popular-items.capacity:64}")
+    private int capacity;
+
+    @Value("${wanderfare.analytics.popular-items.checkpoint-file:./data/sketches/popular-items.bin}")
+    private String checkpointFile;
+
+    private final Map<Long, VendorSketches> vendors = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    // Read side: order events (which synchronize per vendor); write side: checkpoint snapshots
+    private final ReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+    private final AtomicLong highWaterOrderId = new AtomicLong();
+
+    @PostConstruct
+    public void load() {
+        LocalDateTime since = LocalDate.now().minusDays(RETAINED_DAYS - 1).atStartOfDay();
+        long afterId = 0;
+        Path path = Paths.get(checkpointFile);
+        if (Files.exists(path)) {
+            try {
+                afterId = readCheckpoint(path);
+                log.info("Loaded popular-items sketches for {} vendors from {}", vendors.size(), path);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Ignoring unreadable popular-items checkpoint {}: {}", path, e.getMessage());
+                vendors.clear();
+                afterId = 0;
+            }
+        }
+
+        long upToId = Math.max(afterId, orderRepository.findMaxId());
+        long today = LocalDate.now().toEpochDay();
+        int rows = 0;
+        for (Object[] row : orderItemRepository.sumQuantitiesByDayVendorAndItem(since, afterId, upToId)) {
+            long day = toEpochDay(row[0]);
+            if (day > today - RETAINED_DAYS) {
+                vendorSketches(((Number) row[1]).longValue())
+                        .add(day, ((Number) row[2]).longValue(), ((Number) row[3]).longValue());
+                rows++;
+            }
+        }
+        highWaterOrderId.set(upToId);
+        if (rows > 0) {
+            dirty.set(true);
+        }
+        log.info("Replayed {} popular-item rows of orders {} to {}", rows, afterId + 1, upToId);
+    }
+
+    // After commit so a rolled-back order never counts; the order's items are already in memory
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        long day = order.getCreatedAt().toLocalDate().toEpochDay();
+        checkpointLock.readLock().lock();
+        try {
+            VendorSketches sketches = vendorSketches(order.getVendor().getId());
+            for (OrderItem item : order.getOrderItems()) {
+                sketches.add(day, item.getMenuItem().getId(), item.getQuantity());
+            }
+            highWaterOrderId.accumulateAndGet(order.getId(), Math::max);
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+        dirty.set(true);
+    }
+
+    /**
+     * Top items for a vendor in the given window, best seller first. Each entry carries the
+     * estimated quantity and the most it may overstate the true quantity by.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getPopularItems(Long vendorId, Window window, int limit) {
+        VendorSketches sketches = vendors.get(vendorId);
+        if (sketches == null || limit <= 0) {
+            return new ArrayList<>();
+        }
+        List<SpaceSavingSketch.Counter> top = sketches.windowSketch(LocalDate.now().toEpochDay(), window)
+                .top(Math.min(limit, capacity));
+
+        List<Long> ids = new ArrayList<>(top.size());
+        for (SpaceSavingSketch.Counter counter : top) {
+            ids.add(counter.getKey());
+        }
+        Map<Long, String> names = new HashMap<>();
+        for (MenuItem menuItem : entityManager.unwrap(Session.class).byMultipleIds(MenuItem.class).multiLoad(ids)) {
+            if (menuItem != null) {
+                names.put(menuItem.getId(), menuItem.getName());
+            }
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>(top.size());
+        for (SpaceSavingSketch.Counter counter : top) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("menuItemId", counter.getKey());
+            entry.put("name", names.get(counter.getKey()));
+            entry.put("quantity", counter.getCount());
+            entry.put("maxOverestimate", counter.getError());
+            result.add(entry);
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${wanderfare.analytics.popular-items.checkpoint-interval-ms:300000}")
+    public void checkpoint() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            writeCheckpoint(Paths.get(checkpointFile));
+        } catch (IOException e) {
+            dirty.set(true);
+            log.warn("Failed to checkpoint popular-items sketches: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    private VendorSketches vendorSketches(Long vendorId) {
+        return vendors.computeIfAbsent(vendorId, id -> new VendorSketches());
+    }
+
+    // Serialized in memory under the write lock, so order events wait only for the copy; then
+    // written to a temp file and moved into place so a crash mid-write keeps the previous checkpoint
+    private void writeCheckpoint(Path path) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        checkpointLock.writeLock().lock();
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeInt(CHECKPOINT_VERSION);
+            out.writeLong(highWaterOrderId.get());
+            out.writeInt(vendors.size());
+            for (Map.Entry<Long, VendorSketches> entry : vendors.entrySet()) {
+                out.writeLong(entry.getKey());
+                entry.getValue().writeTo(out);
+            }
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "popular-items", ".tmp");
+        try {
+            Files.write(tmp, buffer.toByteArray());
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Checkpointed popular-items sketches for {} vendors to {}", vendors.size(), path);
+    }
+
+    // Returns the highest order id the checkpointed sketches include
+    private long readCheckpoint(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                throw new IOException("unrecognised checkpoint format");
+            }
+            long highWaterId = in.readLong();
+            long oldestDay = LocalDate.now().toEpochDay() - RETAINED_DAYS + 1;
+            int vendorCount = in.readInt();
+            for (int i = 0; i < vendorCount; i++) {
+                long vendorId = in.readLong();
+                vendorSketches(vendorId).readFrom(in, oldestDay);
+            }
+            return highWaterId;
+        }
+    }
+
+    private static long toEpochDay(Object value) {
+        if (value instanceof Date date) {
+            return date.toLocalDate().toEpochDay();
+        }
+        return ((LocalDate) value).toEpochDay();
+    }
+
+    // One sketch per day for the retained days, plus merged summaries of the completed days
+    private class VendorSketches {
+        private final TreeMap<Long, SpaceSavingSketch> days = new TreeMap<>();
+        private long summaryDay = Long.MIN_VALUE;
+        private SpaceSavingSketch weekBefore;
+        private SpaceSavingSketch monthBefore;
+
+        synchronized void add(long day, long menuItemId, long quantity) {
+            days.computeIfAbsent(day, d -> new SpaceSavingSketch(capacity)).add(menuItemId, quantity);
+            if (day < summaryDay) {
+                // Late or replayed data for a completed day: rebuild the summaries on next read
+                summaryDay = Long.MIN_VALUE;
+            }
+        }
+
+        synchronized SpaceSavingSketch windowSketch(long today, Window window) {
+            SpaceSavingSketch result = new SpaceSavingSketch(capacity);
+            if (window != Window.DAY) {
+                refreshSummaries(today);
+                result.merge(window == Window.WEEK ? weekBefore : monthBefore);
+            }
+            SpaceSavingSketch current = days.get(today);
+            if (current != null) {
+                result.merge(current);
+            }
+            return result;
+        }
+
+        private void refreshSummaries(long today) {
+            if (summaryDay == today) {
+                return;
+            }
+            days.headMap(today - RETAINED_DAYS, true).clear();
+            weekBefore = new SpaceSavingSketch(capacity);
+            monthBefore = new SpaceSavingSketch(capacity);
+            for (Map.Entry<Long, SpaceSavingSketch> entry : days.headMap(today, false).entrySet()) {
+                monthBefore.merge(entry.getValue());
+                if (entry.getKey() > today - Window.WEEK.getDays()) {
+                    weekBefore.merge(entry.getValue());
+                }
+            }
+            summaryDay = today;
+        }
+
+        synchronized void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(days.size());
+            for (Map.Entry<Long, SpaceSavingSketch> entry : days.entrySet()) {
+                out.writeLong(entry.getKey());
+                entry.getValue().writeTo(out);
+            }
+        }
+
+        synchronized void readFrom(DataInputStream in, long oldestDay) throws IOException {
+            int dayCount = in.readInt();
+            for (int i = 0; i < dayCount; i++) {
+                long day = in.readLong();
+                SpaceSavingSketch sketch = SpaceSavingSketch.readFrom(in);
+                if (day >= oldestDay) {
+                    days.put(day, sketch);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.wanderfare.service;
+
+import com.wanderfare.analytics.DemandForecast;
+import com.wanderfare.event.OrderCreatedEvent;
+import com.wanderfare.event.OrderStatusChangedEvent;
+import com.wanderfare.model.MenuItemDailySales;
+import com.wanderfare.model.Order;
+import com.wanderfare.model.OrderItem;
+import com.wanderfare.repository.DailyRevenueRollupRepository;
+import com.wanderfare.repository.MenuItemDailySalesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Price suggestions per menu item from daily demand series in menu_item_daily_sales, which is
+ * kept current from order events. A scheduled job recomputes every active vendor in parallel on
+ * the analytics executor; requests read the last result from memory.
+ *
+ * For each item the price elasticity of demand is fitted from the realised unit price on each
+ * day; inelastic items (|e| < 1) get a price increase and elastic ones a decrease, scaled by how
+ * far e is from -1 and capped at max-adjustment-percent. Items whose price never moved fall back
+ * to the Holt-Winters (weekly season) demand forecast: rising demand nudges the price up.
+ */
+@Service
+public class PricePredictionService {
+
+    private static final Logger log = LoggerFactory.getLogger(PricePredictionService.class);
+
+    private static final int HORIZON_DAYS = 7;
+    private static final int SEASON_DAYS = 7;
+    private static final double ALPHA = 0.3;
+    private static final double BETA = 0.1;
+    private static final double GAMMA = 0.2;
+    // Forecast vs last week changes smaller than this count as "stable"
+    private static final double TREND_THRESHOLD = 0.05;
+    private static final double DEMAND_TREND_THRESHOLD = 0.10;
+
+    @Autowired
+    private MenuItemDailySalesRepository salesRepository;
+
+    @Autowired
+    private DailyRevenueRollupRepository rollupRepository;
+
+    @Autowired
+    @Qualifier("analyticsExecutor")
+    private ThreadPoolTaskExecutor analyticsExecutor;
+
+    @Value("${wanderfare.analytics.prediction.history-days:56}")
+    private int historyDays;
+
+    @Value("${wanderfare.analytics.prediction.max-adjustment-percent:10}")
+    private double maxAdjustmentPercent;
+
+    @Value("${wanderfare.analytics.prediction.min-price-observations:14}")
+    private int minPriceObservations;
+
+    private final Map<Long, Map<String, Object>> predictions = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PricePredictionService(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        applyDelta(event.getOrder(), 1);
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        boolean wasCancelled = event.getPreviousStatus() == Order.OrderStatus.CANCELLED;
+        boolean isCancelled = event.getNewStatus() == Order.OrderStatus.CANCELLED;
+        if (wasCancelled != isCancelled) {
+            applyDelta(event.getOrder(), isCancelled ? -1 : 1);
+        }
+    }
+
+    // One multi-row upsert per order, as plain JDBC so Hibernate doesn't treat it as a native
+    // write to unknown tables and evict every cache region. Lines are summed per item and sent in
+    // item id order, so concurrent orders lock the shared rows in the same order.
+    private void applyDelta(Order order, int sign) {
+        Map<Long, Long> quantities = new TreeMap<>();
+        Map<Long, BigDecimal> revenues = new HashMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            Long menuItemId = item.getMenuItem().getId();
+            BigDecimal revenue = item.getTotalPrice() != null ? item.getTotalPrice() : BigDecimal.ZERO;
+            quantities.merge(menuItemId, (long) item.getQuantity(), Long::sum);
+            revenues.merge(menuItemId, revenue, BigDecimal::add);
+        }
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        LocalDate day = order.getCreatedAt().toLocalDate();
+        Long vendorId = order.getVendor().getId();
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO menu_item_daily_sales (vendor_id, menu_item_id, sales_date, quantity, revenue) VALUES ");
+        List<Object> args = new ArrayList<>(quantities.size() * 5);
+        for (Map.Entry<Long, Long> entry : quantities.entrySet()) {
+            BigDecimal revenue = revenues.get(entry.getKey());
+            sql.append(args.isEmpty() ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+            args.add(vendorId);
+            args.add(entry.getKey());
+            args.add(day);
+            args.add(sign * entry.getValue());
+            args.add(sign < 0 ? revenue.negate() : revenue);
+        }
+        sql.append(" ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), revenue = revenue + VALUES(revenue)");
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * The vendor's latest prediction. Vendors not covered by the last scheduled run (new vendors,
+     * or before the first run) are computed once on demand and cached.
+     */
+    public Map<String, Object> getPrediction(Long vendorId) {
+        Map<String, Object> prediction = predictions.get(vendorId);
+        if (prediction == null) {
+            prediction = predict(vendorId);
+            predictions.put(vendorId, prediction);
+        }
+        return prediction;
+    }
+
+    @Scheduled(fixedDelayString = "${wanderfare.analytics.prediction.recompute-interval-ms:3600000}",
+               initialDelayString = "${wanderfare.analytics.prediction.initial-delay-ms:60000}")
+    public void recomputeAll() {
+        long started = System.nanoTime();
+        Set<Long> vendorIds = new HashSet<>(salesRepository.findActiveVendorIds(LocalDate.now().minusDays(historyDays)));
+        vendorIds.addAll(predictions.keySet());
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(vendorIds.size());
+        for (Long vendorId : vendorIds) {
+            tasks.add(CompletableFuture.runAsync(() -> predictions.put(vendorId, predict(vendorId)), analyticsExecutor)
+                    .exceptionally(e -> {
+                        log.warn("Price prediction failed for vendor {}: {}", vendorId, e.getMessage());
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        log.info("Recomputed price predictions for {} vendors in {} ms",
+                vendorIds.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    Map<String, Object> predict(Long vendorId) {
+        // Completed days only: today's partial totals would read as a demand drop
+        LocalDate end = LocalDate.now();
+        LocalDate start = end.minusDays(historyDays);
+        long startDay = start.toEpochDay();
+
+        double[] vendorUnits = new double[historyDays];
+        double[] vendorRevenue = new double[historyDays];
+        List<Map<String, Object>> items = new ArrayList<>();
+        double weightedAdjustment = 0;
+        double weightTotal = 0;
+
+        List<MenuItemDailySales> rows = salesRepository.findByVendorSince(vendorId, start);
+        int i = 0;
+        while (i < rows.size()) {
+            Long menuItemId = rows.get(i).getMenuItemId();
+            double[] units = new double[historyDays];
+            double[] revenue = new double[historyDays];
+            for (; i < rows.size() && rows.get(i).getMenuItemId().equals(menuItemId); i++) {
+                MenuItemDailySales row = rows.get(i);
+                int d = (int) (row.getSalesDate().toEpochDay() - startDay);
+                if (d < historyDays) {
+                    units[d] += row.getQuantity();
+                    revenue[d] += row.getRevenue().doubleValue();
+                }
+            }
+            for (int d = 0; d < historyDays; d++) {
+                vendorUnits[d] += units[d];
+                vendorRevenue[d] += revenue[d];
+            }
+
+            Map<String, Object> item = predictItem(menuItemId, units, revenue);
+            if (item != null) {
+                double itemRevenue = DemandForecast.sum(revenue, 0, historyDays);
+                weightedAdjustment += ((BigDecimal) item.get("suggestedAdjustmentPercent")).doubleValue() * itemRevenue;
+                weightTotal += itemRevenue;
+                items.add(item);
+            }
+        }
+
+        double lastWeek = DemandForecast.sum(vendorUnits, historyDays - SEASON_DAYS, historyDays);
+        double nextWeek = DemandForecast.sum(DemandForecast.holtWinters(vendorUnits, SEASON_DAYS, ALPHA, BETA, GAMMA, HORIZON_DAYS), 0, HORIZON_DAYS);
+        String trend = "stable";
+        if (lastWeek > 0 && nextWeek > lastWeek * (1 + TREND_THRESHOLD)) {
+            trend = "rising";
+        } else if (lastWeek > 0 && nextWeek < lastWeek * (1 - TREND_THRESHOLD)) {
+            trend = "declining";
+        }
+
+        long recentOrderCount = 0;
+        for (Object[] row : rollupRepository.sumByStatusForVendor(vendorId, start, end.minusDays(1))) {
+            if (row[0] != Order.OrderStatus.CANCELLED) {
+                recentOrderCount += ((Number) row[1]).longValue();
+            }
+        }
+
+        Map<String, Object> prediction = new HashMap<>();
+        prediction.put("historicalData", monthlyAverageDailyRevenue(start, vendorRevenue));
+        prediction.put("recentOrderCount", recentOrderCount);
+        prediction.put("suggestedPriceAdjustment", round(weightTotal > 0 ? weightedAdjustment / weightTotal : 0, 1));
+        prediction.put("marketTrends", trend);
+        prediction.put("unitsLast7Days", Math.round(lastWeek));
+        prediction.put("forecastUnitsNext7Days", Math.round(nextWeek));
+        prediction.put("items", items);
+        prediction.put("generatedAt", LocalDateTime.now());
+        return prediction;
+    }
+
+    private Map<String, Object> predictItem(Long menuItemId, double[] units, double[] revenue) {
+        int first = 0;
+        while (first < units.length && units[first] == 0) {
+            first++;
+        }
+        if (first == units.length) {
+            return null;
+        }
+        // Only the days since the item first sold; earlier zeros aren't demand
+        double[] series = Arrays.copyOfRange(units, first, units.length);
+
+        double[] prices = new double[series.length];
+        double[] sold = new double[series.length];
+        int observations = 0;
+        double lastPrice = 0;
+        for (int d = first; d < units.length; d++) {
+            if (units[d] > 0 && revenue[d] > 0) {
+                prices[observations] = revenue[d] / units[d];
+                sold[observations] = units[d];
+                lastPrice = prices[observations];
+                observations++;
+            }
+        }
+
+        double lastWeek = DemandForecast.sum(series, Math.max(0, series.length - SEASON_DAYS), series.length);
+        double nextWeek = DemandForecast.sum(DemandForecast.holtWinters(series, SEASON_DAYS, ALPHA, BETA, GAMMA, HORIZON_DAYS), 0, HORIZON_DAYS);
+        double elasticity = DemandForecast.priceElasticity(prices, sold, observations, minPriceObservations);
+
+        double adjustment = 0;
+        String basis = "insufficientData";
+        if (!Double.isNaN(elasticity)) {
+            // Revenue rises with price while e > -1 and falls once e < -1
+            adjustment = clamp(1 + elasticity) * maxAdjustmentPercent;
+            basis = "elasticity";
+        } else if (series.length >= 2 * SEASON_DAYS && lastWeek > 0) {
+            double growth = nextWeek / lastWeek - 1;
+            adjustment = Math.abs(growth) < DEMAND_TREND_THRESHOLD ? 0 : clamp(growth) * maxAdjustmentPercent / 2;
+            basis = "demandTrend";
+        }
+
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("menuItemId", menuItemId);
+        item.put("recentUnitPrice", round(lastPrice, 2));
+        item.put("unitsLast7Days", Math.round(lastWeek));
+        item.put("forecastUnitsNext7Days", round(nextWeek, 1));
+        item.put("elasticity", Double.isNaN(elasticity) ? null : round(elasticity, 2));
+        item.put("suggestedAdjustmentPercent", round(adjustment, 1));
+        item.put("basis", basis);
+        return item;
+    }
+
+    private Map<String, BigDecimal> monthlyAverageDailyRevenue(LocalDate start, double[] revenue) {
+        Map<YearMonth, double[]> months = new TreeMap<>();
+        for (int d = 0; d < revenue.length; d++) {
+            double[] totals = months.computeIfAbsent(YearMonth.from(start.plusDays(d)), m -> new double[2]);
+            totals[0] += revenue[d];
+            totals[1]++;
+        }
+        Map<String, BigDecimal> result = new LinkedHashMap<>();
+        months.forEach((month, totals) -> result.put(month.toString(), round(totals[0] / totals[1], 2)));
+        return result;
+    }
+
+    private static double clamp(double value) {
+        return Math.max(-1, Math.min(1, value));
+    }
+
+    private static BigDecimal round(double value, int scale) {
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,128 @@
+package com.wanderfare.service;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * On-demand Java Flight Recorder sessions for a running node. At most one recording is active at
+ * a time, and each is bounded in both duration and size so a forgotten recording stops itself.
+ * Uses the JDK "profile" settings plus the WanderFare events in com.wanderfare.metrics.
+ */
+@Service
+public class ProfilingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfilingService.class);
+
+    private static final String[] APPLICATION_EVENTS = {
+            "com.wanderfare.OrderCreation",
+            "com.wanderfare.TokenParsing",
+            "com.wanderfare.DtoMapping",
+            "com.wanderfare.AnalyticsQuery"
+    };
+
+    @Value("${wanderfare.profiling.max-duration-seconds:600}")
+    private long maxDurationSeconds;
+
+    @Value("${wanderfare.profiling.max-size-mb:100}")
+    private long maxSizeMb;
+
+    private final AtomicReference<Recording> active = new AtomicReference<>();
+
+    public Map<String, Object> startRecording(Long durationSeconds) {
+        long seconds = durationSeconds == null ? maxDurationSeconds : Math.min(durationSeconds, maxDurationSeconds);
+        if (seconds <= 0) {
+            throw new RuntimeException("Recording duration must be positive");
+        }
+
+        // A recording that reached its duration stopped on its own and no longer holds the slot
+        Recording previous = active.get();
+        if (previous != null && isFinished(previous) && active.compareAndSet(previous, null)) {
+            previous.close();
+            log.info("Discarded finished JFR recording {}", previous.getName());
+        }
+
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration("profile"));
+        } catch (IOException | ParseException e) {
+            throw new RuntimeException("Failed to load JFR configuration", e);
+        }
+        for (String event : APPLICATION_EVENTS) {
+            recording.enable(event);
+        }
+        recording.setName("wanderfare-" + System.currentTimeMillis());
+        recording.setToDisk(true);
+        recording.setDuration(Duration.ofSeconds(seconds));
+        recording.setMaxSize(maxSizeMb * 1024 * 1024);
+
+        if (!active.compareAndSet(null, recording)) {
+            recording.close();
+            throw new RuntimeException("A recording is already in progress");
+        }
+        recording.start();
+        log.info("Started JFR recording {} for up to {}s / {} MB", recording.getName(), seconds, maxSizeMb);
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("name", recording.getName());
+        status.put("startedAt", LocalDateTime.now());
+        status.put("maxDurationSeconds", seconds);
+        status.put("maxSizeMb", maxSizeMb);
+        return status;
+    }
+
+    /**
+     * Stops the active recording (if it has not already hit its duration) and dumps it to a
+     * temporary file. The caller owns the returned file and must delete it.
+     */
+    public Path stopRecording() {
+        Recording recording = active.getAndSet(null);
+        if (recording == null) {
+            throw new RuntimeException("No recording in progress");
+        }
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            Path file = Files.createTempFile(recording.getName(), ".jfr");
+            recording.dump(file);
+            log.info("Stopped JFR recording {} ({} bytes)", recording.getName(), Files.size(file));
+            return file;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write JFR recording", e);
+        } finally {
+            recording.close();
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Recording recording = active.get();
+        Map<String, Object> status = new HashMap<>();
+        status.put("active", recording != null && !isFinished(recording));
+        if (recording != null) {
+            status.put("name", recording.getName());
+            status.put("state", recording.getState().name());
+            status.put("startTime", recording.getStartTime());
+        }
+        return status;
+    }
+
+    private static boolean isFinished(Recording recording) {
+        RecordingState state = recording.getState();
+        return state == RecordingState.STOPPED || state == RecordingState.CLOSED;
+    }
+}
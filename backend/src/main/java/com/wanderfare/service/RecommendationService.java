@@ -0,0 +1,243 @@
+package com.wanderfare.service;
+
+import com.wanderfare.analytics.CoPurchaseCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * "Customers also ordered" lists mined from order_items. A periodic job streams every order in
+ * the history window (grouped by vendor, then order) from a forward-only cursor, hands each
+ * vendor's baskets to a fork/join pool as soon as the vendor is complete, and publishes a
+ * per-item array of the top co-purchased item ids. Requests only read that map.
+ */
+@Service
+public class RecommendationService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationService.class);
+
+    private static final String BASKETS_SQL =
+            "SELECT o.vendor_id, oi.order_id, oi.menu_item_id " +
+            "FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+            "WHERE o.created_at >= ? AND o.status <> 'CANCELLED' " +
+            "ORDER BY o.vendor_id, oi.order_id";
+
+    private static final long[] NONE = new long[0];
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${wanderfare.recommendations.history-days:180}")
+    private int historyDays;
+
+    @Value("${wanderfare.recommendations.top-n:5}")
+    private int topN;
+
+    @Value("${wanderfare.recommendations.min-support:2}")
+    private int minSupport;
+
+    @Value("${wanderfare.recommendations.parallelism:0}")
+    private int parallelism;
+
+    // menu item id -> co-purchased menu item ids, best first; replaced wholesale on each rebuild
+    private volatile Map<Long, long[]> alsoOrdered = Map.of();
+    private volatile LocalDateTime builtAt;
+
+    public RecommendationService(DataSource dataSource,
+                                 @Value("${wanderfare.recommendations.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public long[] getAlsoOrdered(Long menuItemId) {
+        long[] items = alsoOrdered.get(menuItemId);
+        return items != null ? items : NONE;
+    }
+
+    /**
+     * Recommendations for a whole basket (a cart or a previous order): the items' lists are
+     * interleaved rank by rank, skipping anything already in the basket.
+     */
+    public List<Long> recommendFor(Collection<Long> menuItemIds, int limit) {
+        Set<Long> result = new LinkedHashSet<>();
+        List<long[]> lists = new ArrayList<>(menuItemIds.size());
+        for (Long id : menuItemIds) {
+            lists.add(getAlsoOrdered(id));
+        }
+        for (int rank = 0; rank < topN && result.size() < limit; rank++) {
+            for (long[] list : lists) {
+                if (rank < list.length && !menuItemIds.contains(list[rank])) {
+                    result.add(list[rank]);
+                    if (result.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    @Scheduled(fixedDelayString = "${wanderfare.recommendations.rebuild-interval-ms:21600000}",
+               initialDelayString = "${wanderfare.recommendations.initial-delay-ms:120000}")
+    @Transactional(readOnly = true)
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    // Read-only so the history scan runs on the replica when one is configured
+    @Transactional(readOnly = true)
+    public synchronized Map<String, Object> rebuild() {
+        long started = System.nanoTime();
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<ForkJoinTask<Map<Long, long[]>>> vendorTasks = new ArrayList<>();
+            BasketCollector collector = new BasketCollector(vendor -> vendorTasks.add(pool.submit(vendor::topNeighbours)));
+            jdbcTemplate.query(BASKETS_SQL, collector::accept, LocalDateTime.now().minusDays(historyDays));
+            collector.finish();
+
+            Map<Long, long[]> rebuilt = new HashMap<>();
+            for (ForkJoinTask<Map<Long, long[]>> task : vendorTasks) {
+                rebuilt.putAll(task.join());
+            }
+            alsoOrdered = rebuilt;
+            builtAt = LocalDateTime.now();
+
+            long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+            log.info("Rebuilt co-purchase lists for {} items across {} vendors from {} orders in {} ms",
+                    rebuilt.size(), vendorTasks.size(), collector.orders, elapsedMs);
+
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("vendors", vendorTasks.size());
+            summary.put("orders", collector.orders);
+            summary.put("itemsWithRecommendations", rebuilt.size());
+            summary.put("elapsedMs", elapsedMs);
+            summary.put("builtAt", builtAt);
+            return summary;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private class VendorBaskets {
+        private final long[] itemIds;
+        private final int[] basketsPerItem;
+        private final List<int[]> baskets;
+
+        VendorBaskets(long[] itemIds, int[] basketsPerItem, List<int[]> baskets) {
+            this.itemIds = itemIds;
+            this.basketsPerItem = basketsPerItem;
+            this.baskets = baskets;
+        }
+
+        Map<Long, long[]> topNeighbours() {
+            int[][] neighbours = CoPurchaseCounter.topNeighbours(baskets, basketsPerItem, topN, minSupport);
+            Map<Long, long[]> result = new HashMap<>();
+            for (int i = 0; i < neighbours.length; i++) {
+                if (neighbours[i] != null) {
+                    long[] ids = new long[neighbours[i].length];
+                    for (int k = 0; k < ids.length; k++) {
+                        ids[k] = itemIds[neighbours[i][k]];
+                    }
+                    result.put(itemIds[i], ids);
+                }
+            }
+            return result;
+        }
+    }
+
+    // Turns the (vendor, order, item) row stream into per-vendor baskets of dense item indices
+    private class BasketCollector {
+        private final Consumer<VendorBaskets> sink;
+        private long vendorId = -1;
+        private long orderId = -1;
+        private Map<Long, Integer> index = new HashMap<>();
+        private List<Long> itemIds = new ArrayList<>();
+        private int[] basketsPerItem = new int[64];
+        private List<int[]> baskets = new ArrayList<>();
+        private int[] basket = new int[16];
+        private int basketSize;
+        private long orders;
+
+        BasketCollector(Consumer<VendorBaskets> sink) {
+            this.sink = sink;
+        }
+
+        void accept(ResultSet rs) throws SQLException {
+            long rowVendor = rs.getLong(1);
+            long rowOrder = rs.getLong(2);
+            long menuItemId = rs.getLong(3);
+            if (rowVendor != vendorId) {
+                finish();
+                vendorId = rowVendor;
+            } else if (rowOrder != orderId) {
+                closeBasket();
+            }
+            orderId = rowOrder;
+
+            Integer dense = index.get(menuItemId);
+            if (dense == null) {
+                dense = itemIds.size();
+                index.put(menuItemId, dense);
+                itemIds.add(menuItemId);
+            }
+            if (basketSize == basket.length) {
+                basket = Arrays.copyOf(basket, basketSize * 2);
+            }
+            basket[basketSize++] = dense;
+        }
+
+        void finish() {
+            closeBasket();
+            if (!baskets.isEmpty()) {
+                long[] ids = new long[itemIds.size()];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = itemIds.get(i);
+                }
+                sink.accept(new VendorBaskets(ids, Arrays.copyOf(basketsPerItem, ids.length), baskets));
+            }
+            index = new HashMap<>();
+            itemIds = new ArrayList<>();
+            basketsPerItem = new int[64];
+            baskets = new ArrayList<>();
+        }
+
+        private void closeBasket() {
+            if (basketSize == 0) {
+                return;
+            }
+            orders++;
+            int[] items = Arrays.stream(basket, 0, basketSize).sorted().distinct().toArray();
+            basketSize = 0;
+            for (int item : items) {
+                if (item >= basketsPerItem.length) {
+                    basketsPerItem = Arrays.copyOf(basketsPerItem, Math.max(item + 1, basketsPerItem.length * 2));
+                }
+                basketsPerItem[item]++;
+            }
+            // Single-item orders still count towards item popularity but have no pairs
+            if (items.length > 1) {
+                baskets.add(items);
+            }
+        }
+    }
+}
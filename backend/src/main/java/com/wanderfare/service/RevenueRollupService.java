@@ -0,0 +1,165 @@
+package com.wanderfare.service;
+
+import com.wanderfare.event.OrderCreatedEvent;
+import com.wanderfare.event.OrderStatusChangedEvent;
+import com.wanderfare.model.Order;
+import com.wanderfare.repository.DailyRevenueRollupRepository;
+import com.wanderfare.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps daily_revenue_rollups in step with the orders table so that revenue for any date range
+ * is a sum over at most (days x vendors x statuses) rows instead of a scan of orders.
+ * Each order is counted under the day it was created and under its current status.
+ */
+@Service
+public class RevenueRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(RevenueRollupService.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO daily_revenue_rollups (rollup_date, vendor_id, city, status, order_count, revenue) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+            "revenue = revenue + VALUES(revenue)";
+
+    @Autowired
+    private DailyRevenueRollupRepository rollupRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RevenueRollupService(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        applyDelta(order, order.getStatus(), 1);
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Order order = event.getOrder();
+        applyDelta(order, event.getPreviousStatus(), -1);
+        applyDelta(order, event.getNewStatus(), 1);
+    }
+
+    // Plain JDBC in the surrounding transaction rather than a native @Modifying query: Hibernate
+    // can't tell which tables a native update touches, so it would evict every second-level and
+    // query cache region on each order. Rollups are never cached, so nothing needs invalidating.
+    private void applyDelta(Order order, Order.OrderStatus status, int sign) {
+        BigDecimal amount = order.getFinalAmount() != null ? order.getFinalAmount() : BigDecimal.ZERO;
+        jdbcTemplate.update(UPSERT_SQL,
+                order.getCreatedAt().toLocalDate(),
+                order.getVendor().getId(),
+                cityOf(order),
+                status.name(),
+                sign,
+                sign < 0 ? amount.negate() : amount);
+    }
+
+    private String cityOf(Order order) {
+        String city = order.getVendor().getCity();
+        return city != null ? city : "";
+    }
+
+    /**
+     * Recomputes rollups for [startDate, endDate) from the orders table, one month per transaction
+     * so a full history backfill never holds long locks. Passing null for startDate starts from the
+     * first order ever placed.
+     */
+    public int backfill(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null) {
+            LocalDateTime earliest = orderRepository.findEarliestCreatedAt();
+            if (earliest == null) {
+                return 0;
+            }
+            startDate = earliest.toLocalDate();
+        }
+        if (endDate == null) {
+            endDate = LocalDate.now().plusDays(1);
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int rows = 0;
+        LocalDate cursor = startDate;
+        while (cursor.isBefore(endDate)) {
+            LocalDate chunkStart = cursor;
+            LocalDate chunkEnd = cursor.plusMonths(1).isBefore(endDate) ? cursor.plusMonths(1) : endDate;
+            Integer written = tx.execute(status -> {
+                rollupRepository.deleteByDateRange(chunkStart, chunkEnd);
+                return rollupRepository.rebuildFromOrders(chunkStart.atStartOfDay(), chunkEnd.atStartOfDay());
+            });
+            rows += written != null ? written : 0;
+            log.info("Rebuilt revenue rollups for {} to {} ({} rows)", chunkStart, chunkEnd, written);
+            cursor = chunkEnd;
+        }
+        return rows;
+    }
+
+    /**
+     * Revenue summary across all vendors, or a single vendor when vendorId is non-null.
+     * The range is applied at day granularity: both endpoints are inclusive calendar days.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getRevenueSummary(Long vendorId, LocalDateTime startDate, LocalDateTime endDate) {
+        List<Object[]> rows = vendorId == null
+                ? rollupRepository.sumByStatus(startDate.toLocalDate(), endDate.toLocalDate())
+                : rollupRepository.sumByStatusForVendor(vendorId, startDate.toLocalDate(), endDate.toLocalDate());
+
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        long totalOrders = 0;
+        Map<String, Long> statusBreakdown = new HashMap<>();
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            statusBreakdown.put(status.name(), 0L);
+        }
+
+        for (Object[] row : rows) {
+            Order.OrderStatus status = (Order.OrderStatus) row[0];
+            long count = row[1] != null ? ((Number) row[1]).longValue() : 0L;
+            BigDecimal revenue = row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
+            statusBreakdown.put(status.name(), count);
+            // Cancelled orders are excluded from revenue, matching OrderRepository.calculateVendorRevenue
+            if (status != Order.OrderStatus.CANCELLED) {
+                totalRevenue = totalRevenue.add(revenue);
+                totalOrders += count;
+            }
+        }
+
+        BigDecimal averageOrderValue = totalOrders > 0
+                ? totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("period", Map.of("start", startDate, "end", endDate));
+        summary.put("totalRevenue", totalRevenue);
+        summary.put("totalOrders", totalOrders);
+        summary.put("averageOrderValue", averageOrderValue);
+        summary.put("orderStatusBreakdown", statusBreakdown);
+        return summary;
+    }
+}
@@ -3,19 +3,24 @@ package com.wanderfare.service;
 import com.wanderfare.dto.auth.AuthResponse;
 import com.wanderfare.dto.auth.LoginRequest;
 import com.wanderfare.dto.auth.RegisterRequest;
+import com.wanderfare.dto.auth.UserCredentials;
+import com.wanderfare.event.VendorChangedEvent;
 import com.wanderfare.model.Customer;
 import com.wanderfare.model.User;
 import com.wanderfare.model.Vendor;
 import com.wanderfare.repository.CustomerRepository;
 import com.wanderfare.repository.UserRepository;
 import com.wanderfare.repository.VendorRepository;
+import com.wanderfare.security.AuthenticatedUser;
 import com.wanderfare.security.JwtUtil;
+import com.wanderfare.security.LoginAttemptThrottle;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
@@ -37,26 +42,45 @@ public class UserService implements UserDetailsService {
     private VendorRepository vendorRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private LoginAttemptThrottle loginAttemptThrottle;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByEmail(username)
+        return userRepository.findCredentialsByEmail(username)
+                .map(AuthenticatedUser::new)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
 
-    public AuthResponse login(LoginRequest loginRequest) {
-        User user = userRepository.findByEmail(loginRequest.getEmail())
-                .orElseThrow(() -> new RuntimeException("Invalid credentials"));
+    // No surrounding transaction: each repository call gets its own, so no DB connection is held
+    // while the request waits on the password hashing pool
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AuthResponse login(LoginRequest loginRequest, String clientIp) {
+        String email = loginRequest.getEmail();
+        // Counts the attempt up front; only a successful login gives it back
+        loginAttemptThrottle.acquire(email, clientIp);
 
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+        Optional<UserCredentials> found = userRepository.findCredentialsByEmail(email);
+        if (found.isEmpty()) {
             throw new RuntimeException("Invalid credentials");
         }
+        UserCredentials credentials = found.get();
+        AuthenticatedUser user = new AuthenticatedUser(credentials);
 
-        if (!user.getIsActive()) {
+        if (!passwordHashingService.matches(loginRequest.getPassword(), user.getPassword())) {
+            throw new RuntimeException("Invalid credentials");
+        }
+        loginAttemptThrottle.recordSuccess(email, clientIp);
+
+        if (!user.isEnabled()) {
             throw new RuntimeException("Account is deactivated");
         }
 
@@ -66,10 +90,11 @@ public class UserService implements UserDetailsService {
 
         String token = jwtUtil.generateToken(user, claims);
 
-        return new AuthResponse(token, user.getId(), user.getEmail(), 
-                               user.getFirstName(), user.getLastName(), user.getRole());
+        return new AuthResponse(token, user.getId(), user.getUsername(),
+                               credentials.getFirstName(), credentials.getLastName(), user.getRole());
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse register(RegisterRequest registerRequest) {
         if (userRepository.existsByEmail(registerRequest.getEmail())) {
             throw new RuntimeException("Email already exists");
@@ -133,7 +158,7 @@ public class UserService implements UserDetailsService {
 
     private void setCommonUserFields(User user, RegisterRequest request) {
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         user.setFirstName(request.getFirstName());
         user.setLastName(request.getLastName());
         user.setPhoneNumber(request.getPhoneNumber());
@@ -169,6 +194,9 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setIsActive(false);
         userRepository.save(user);
+        if (user instanceof Vendor vendor) {
+            eventPublisher.publishEvent(new VendorChangedEvent(vendor));
+        }
     }
 
     public void activateUser(Long id) {
@@ -176,14 +204,22 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setIsActive(true);
         userRepository.save(user);
+        if (user instanceof Vendor vendor) {
+            eventPublisher.publishEvent(new VendorChangedEvent(vendor));
+        }
     }
 
     public Map<String, Long> getUserStatistics() {
+        Map<String, Long> byRole = new HashMap<>();
+        for (Object[] row : userRepository.countGroupedByRole()) {
+            byRole.put((String) row[0], ((Number) row[1]).longValue());
+        }
+
         Map<String, Long> stats = new HashMap<>();
-        stats.put("totalUsers", userRepository.count());
-        stats.put("customers", userRepository.countByRole(User.Role.CUSTOMER));
-        stats.put("vendors", userRepository.countByRole(User.Role.VENDOR));
-        stats.put("admins", userRepository.countByRole(User.Role.ADMIN));
+        stats.put("totalUsers", byRole.values().stream().mapToLong(Long::longValue).sum());
+        stats.put("customers", byRole.getOrDefault(User.Role.CUSTOMER.name(), 0L));
+        stats.put("vendors", byRole.getOrDefault(User.Role.VENDOR.name(), 0L));
+        stats.put("admins", byRole.getOrDefault(User.Role.ADMIN.name(), 0L));
         return stats;
     }
 }
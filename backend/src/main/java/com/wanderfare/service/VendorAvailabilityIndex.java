@@ -0,0 +1,255 @@
+package com.wanderfare.service;
+
+import com.wanderfare.event.VendorChangedEvent;
+import com.wanderfare.model.Vendor;
+import com.wanderfare.repository.VendorRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Which listed (approved and active) vendors are open right now, answered from memory. The day is
+ * split into fixed time-of-day buckets; for each bucket one bitset holds the vendors open for the
+ * whole bucket and another the vendors whose opening or closing time falls inside it, which are
+ * checked against their exact hours. City and cuisine bitsets are intersected with the result,
+ * and the minimum rating is checked per remaining vendor.
+ *
+ * Hours are opening inclusive, closing exclusive; a closing time earlier than the opening time
+ * wraps past midnight, equal times mean open all day, and vendors without hours count as open.
+ * The index is rebuilt (copy-on-write) when a vendor changes on this node and reloaded from the
+ * database on a schedule to pick up changes made on other nodes. Changes applied while a reload is
+ * querying are replayed over its result, which may have been read before they committed.
+ */
+@Service
+public class VendorAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(VendorAvailabilityIndex.class);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final BitSet NONE = new BitSet();
+
+    @Autowired
+    private VendorRepository vendorRepository;
+
+    @Value("${wanderfare.vendors.availability.bucket-minutes:15}")
+    private int bucketMinutes;
+
+    @Value("${wanderfare.vendors.availability.time-zone:}")
+    private String timeZone;
+
+    // Guarded by this; the published snapshot is immutable
+    private final Map<Long, Listing> listings = new HashMap<>();
+    private volatile Snapshot snapshot;
+
+    // Guarded by this; vendor id -> listing (null when unlisted) changed since the running reload
+    // started, or null when no reload is running
+    private Map<Long, Listing> changedDuringReload;
+
+    @PostConstruct
+    public void init() {
+        snapshot = new Snapshot(new TreeMap<>(), bucketMinutes);
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${wanderfare.vendors.availability.reload-interval-ms:300000}",
+               initialDelayString = "${wanderfare.vendors.availability.reload-interval-ms:300000}")
+    public void reload() {
+        synchronized (this) {
+            changedDuringReload = new HashMap<>();
+        }
+        List<Listing> loaded;
+        try {
+            loaded = vendorRepository.findApprovedAndActive().stream().map(Listing::new).toList();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changedDuringReload = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            listings.clear();
+            for (Listing listing : loaded) {
+                listings.put(listing.vendorId, listing);
+            }
+            changedDuringReload.forEach(this::apply);
+            changedDuringReload = null;
+            rebuild();
+        }
+        log.debug("Loaded opening hours for {} vendors", loaded.size());
+    }
+
+    // After commit so a rolled-back profile change never shows up in listings
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onVendorChanged(VendorChangedEvent event) {
+        Vendor vendor = event.getVendor();
+        boolean listed = Boolean.TRUE.equals(vendor.getIsApproved()) && Boolean.TRUE.equals(vendor.getIsActive());
+        Listing listing = listed ? new Listing(vendor) : null;
+        if (changedDuringReload != null) {
+            changedDuringReload.put(vendor.getId(), listing);
+        }
+        if (apply(vendor.getId(), listing)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Ids of listed vendors open now, optionally restricted to a city and/or cuisine type
+     * (case-insensitive) and a minimum rating, in ascending id order.
+     */
+    public List<Long> findOpenVendorIds(String city, String cuisineType, BigDecimal minRating) {
+        LocalTime now = timeZone.isBlank() ? LocalTime.now() : LocalTime.now(ZoneId.of(timeZone));
+        return findOpenVendorIds(city, cuisineType, minRating, now.getHour() * 60 + now.getMinute());
+    }
+
+    List<Long> findOpenVendorIds(String city, String cuisineType, BigDecimal minRating, int minute) {
+        Snapshot current = snapshot;
+        int bucket = minute / current.bucketMinutes;
+
+        BitSet open = (BitSet) current.fullyOpen[bucket].clone();
+        BitSet partial = current.partiallyOpen[bucket];
+        for (int i = partial.nextSetBit(0); i >= 0; i = partial.nextSetBit(i + 1)) {
+            if (current.listings[i].isOpenAt(minute)) {
+                open.set(i);
+            }
+        }
+        if (city != null) {
+            open.and(current.byCity.getOrDefault(normalize(city), NONE));
+        }
+        if (cuisineType != null) {
+            open.and(current.byCuisine.getOrDefault(normalize(cuisineType), NONE));
+        }
+
+        List<Long> ids = new ArrayList<>(open.cardinality());
+        for (int i = open.nextSetBit(0); i >= 0; i = open.nextSetBit(i + 1)) {
+            Listing listing = current.listings[i];
+            if (minRating == null || (listing.rating != null && listing.rating.compareTo(minRating) >= 0)) {
+                ids.add(listing.vendorId);
+            }
+        }
+        return ids;
+    }
+
+    // Returns whether the listings changed
+    private boolean apply(Long vendorId, Listing listing) {
+        if (listing != null) {
+            listings.put(vendorId, listing);
+            return true;
+        }
+        return listings.remove(vendorId) != null;
+    }
+
+    private void rebuild() {
+        snapshot = new Snapshot(new TreeMap<>(listings), bucketMinutes);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class Listing {
+        private final long vendorId;
+        private final String city;
+        private final String cuisineType;
+        private final BigDecimal rating;
+        // Minutes since midnight; -1 when the vendor has no hours set
+        private final int opensAt;
+        private final int closesAt;
+
+        Listing(Vendor vendor) {
+            this.vendorId = vendor.getId();
+            this.city = vendor.getCity() != null ? normalize(vendor.getCity()) : null;
+            this.cuisineType = vendor.getCuisineType() != null ? normalize(vendor.getCuisineType()) : null;
+            this.rating = vendor.getRating();
+            boolean hasHours = vendor.getOpeningTime() != null && vendor.getClosingTime() != null;
+            this.opensAt = hasHours ? vendor.getOpeningTime().toSecondOfDay() / 60 : -1;
+            this.closesAt = hasHours ? vendor.getClosingTime().toSecondOfDay() / 60 : -1;
+        }
+
+        boolean isOpenAt(int minute) {
+            if (opensAt < 0 || opensAt == closesAt) {
+                return true;
+            }
+            if (opensAt < closesAt) {
+                return minute >= opensAt && minute < closesAt;
+            }
+            // Overnight, e.g. 18:00-02:00
+            return minute >= opensAt || minute < closesAt;
+        }
+    }
+
+    private static class Snapshot {
+        private final int bucketMinutes;
+        private final Listing[] listings;
+        private final BitSet[] fullyOpen;
+        private final BitSet[] partiallyOpen;
+        private final Map<String, BitSet> byCity = new HashMap<>();
+        private final Map<String, BitSet> byCuisine = new HashMap<>();
+
+        Snapshot(TreeMap<Long, Listing> sorted, int bucketMinutes) {
+            this.bucketMinutes = bucketMinutes;
+            this.listings = sorted.values().toArray(new Listing[0]);
+            int buckets = (MINUTES_PER_DAY + bucketMinutes - 1) / bucketMinutes;
+            this.fullyOpen = new BitSet[buckets];
+            this.partiallyOpen = new BitSet[buckets];
+            for (int b = 0; b < buckets; b++) {
+                fullyOpen[b] = new BitSet(listings.length);
+                partiallyOpen[b] = new BitSet(listings.length);
+            }
+
+            for (int i = 0; i < listings.length; i++) {
+                Listing listing = listings[i];
+                if (listing.opensAt < 0 || listing.opensAt == listing.closesAt) {
+                    mark(i, 0, MINUTES_PER_DAY);
+                } else if (listing.opensAt < listing.closesAt) {
+                    mark(i, listing.opensAt, listing.closesAt);
+                } else {
+                    // Overnight: the evening up to midnight, then the early hours
+                    mark(i, listing.opensAt, MINUTES_PER_DAY);
+                    mark(i, 0, listing.closesAt);
+                }
+                if (listing.city != null) {
+                    byCity.computeIfAbsent(listing.city, c -> new BitSet()).set(i);
+                }
+                if (listing.cuisineType != null) {
+                    byCuisine.computeIfAbsent(listing.cuisineType, c -> new BitSet()).set(i);
+                }
+            }
+        }
+
+        // Marks vendor i in the buckets overlapping minutes [start, end): fully open where the
+        // bucket lies inside the range, partially open in the (at most two) buckets at its ends
+        private void mark(int i, int start, int end) {
+            if (start >= end) {
+                return;
+            }
+            int first = start / bucketMinutes;
+            int last = (end - 1) / bucketMinutes;
+            for (int b = first; b <= last; b++) {
+                int bucketStart = b * bucketMinutes;
+                int bucketEnd = Math.min(bucketStart + bucketMinutes, MINUTES_PER_DAY);
+                if (start <= bucketStart && end >= bucketEnd) {
+                    fullyOpen[b].set(i);
+                } else {
+                    partiallyOpen[b].set(i);
+                }
+            }
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.wanderfare.service;
 
 import com.wanderfare.dto.VendorDto;
+import com.wanderfare.event.VendorChangedEvent;
 import com.wanderfare.model.Vendor;
 import com.wanderfare.repository.VendorRepository;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -27,35 +30,73 @@ public class VendorService {
     @Autowired
     private ModelMapper modelMapper;
 
-    public List<VendorDto> getAllApprovedVendors() {
-        return vendorRepository.findApprovedAndActive()
-                .stream()
+    @Autowired
+    private VendorAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public List<VendorDto> getAllApprovedVendors(boolean openNow) {
+        List<Vendor> vendors = openNow
+                ? findOpenVendors(null, null, null, Pageable.unpaged()).getContent()
+                : vendorRepository.findApprovedAndActive();
+        return vendors.stream()
                 .map(vendor -> modelMapper.map(vendor, VendorDto.class))
                 .collect(Collectors.toList());
     }
 
-    public Page<VendorDto> getVendorsWithPagination(int page, int size, String sortBy, String sortDir) {
+    @Transactional(readOnly = true)
+    public Page<VendorDto> getVendorsWithPagination(int page, int size, String sortBy, String sortDir, boolean openNow) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                    Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        return vendorRepository.findApprovedAndActive(pageable)
-                .map(vendor -> modelMapper.map(vendor, VendorDto.class));
+        Page<Vendor> vendors = openNow
+                ? findOpenVendors(null, null, null, pageable)
+                : vendorRepository.findApprovedAndActive(pageable);
+        return vendors.map(vendor -> modelMapper.map(vendor, VendorDto.class));
     }
 
+    @Transactional(readOnly = true)
     public Page<VendorDto> searchVendors(String searchTerm, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return vendorRepository.searchVendors(searchTerm, pageable)
                 .map(vendor -> modelMapper.map(vendor, VendorDto.class));
     }
 
+    @Transactional(readOnly = true)
     public Page<VendorDto> filterVendors(String city, String cuisineType, BigDecimal minRating, 
-                                        int page, int size) {
+                                        boolean openNow, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return vendorRepository.findWithFilters(city, cuisineType, minRating, pageable)
-                .map(vendor -> modelMapper.map(vendor, VendorDto.class));
+        Page<Vendor> vendors = openNow
+                ? findOpenVendors(city, cuisineType, minRating, pageable)
+                : vendorRepository.findWithFilters(city, cuisineType, minRating, pageable);
+        return vendors.map(vendor -> modelMapper.map(vendor, VendorDto.class));
+    }
+
+    // Opening hours, city, cuisine and rating are resolved in memory, so the ids are paged and
+    // counted here and the query only loads the page. A sort on anything but the id needs the
+    // database to order the rows, so those requests still pass every open id.
+    private Page<Vendor> findOpenVendors(String city, String cuisineType, BigDecimal minRating, Pageable pageable) {
+        List<Long> openIds = availabilityIndex.findOpenVendorIds(city, cuisineType, minRating);
+        if (openIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        Sort sort = pageable.getSort();
+        if (sort.isSorted() && !sort.equals(Sort.by("id").ascending())) {
+            return vendorRepository.findByIdInWithFilters(openIds, city, cuisineType, minRating, pageable);
+        }
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(vendorRepository.findListedByIdIn(openIds), pageable, openIds.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), openIds.size());
+        int to = Math.min(from + pageable.getPageSize(), openIds.size());
+        List<Vendor> vendors = from < to ? vendorRepository.findListedByIdIn(openIds.subList(from, to)) : List.of();
+        return new PageImpl<>(vendors, pageable, openIds.size());
     }
 
+    @Transactional(readOnly = true)
     public Optional<VendorDto> getVendorById(Long id) {
         return vendorRepository.findById(id)
                 .map(vendor -> modelMapper.map(vendor, VendorDto.class));
@@ -114,6 +155,7 @@ public class VendorService {
         }
 
         Vendor savedVendor = vendorRepository.save(vendor);
+        eventPublisher.publishEvent(new VendorChangedEvent(savedVendor));
         return modelMapper.map(savedVendor, VendorDto.class);
     }
 
@@ -122,6 +164,7 @@ public class VendorService {
                 .orElseThrow(() -> new RuntimeException("Vendor not found"));
         vendor.setIsApproved(true);
         vendorRepository.save(vendor);
+        eventPublisher.publishEvent(new VendorChangedEvent(vendor));
     }
 
     public void rejectVendor(Long vendorId) {
@@ -129,8 +172,10 @@ public class VendorService {
                 .orElseThrow(() -> new RuntimeException("Vendor not found"));
         vendor.setIsApproved(false);
         vendorRepository.save(vendor);
+        eventPublisher.publishEvent(new VendorChangedEvent(vendor));
     }
 
+    @Transactional(readOnly = true)
     public List<VendorDto> getPendingVendors() {
         return vendorRepository.findByIsApproved(false)
                 .stream()
@@ -138,6 +183,7 @@ public class VendorService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<VendorDto> getTopRatedVendors(int limit) {
         Pageable pageable = PageRequest.of(0, limit);
         return vendorRepository.findTopRatedVendors(pageable)
@@ -146,6 +192,7 @@ public class VendorService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<String> getAvailableCuisineTypes() {
         return vendorRepository.findApprovedAndActive()
                 .stream()
@@ -154,6 +201,7 @@ public class VendorService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<String> getAvailableCities() {
         return vendorRepository.findApprovedAndActive()
                 .stream()
@@ -170,6 +218,7 @@ public class VendorService {
         vendor.setRating(newRating);
         vendor.setTotalReviews(vendor.getTotalReviews() + 1);
         vendorRepository.save(vendor);
+        eventPublisher.publishEvent(new VendorChangedEvent(vendor));
     }
 
     public void deactivateVendor(Long vendorId) {
@@ -177,6 +226,7 @@ public class VendorService {
                 .orElseThrow(() -> new RuntimeException("Vendor not found"));
         vendor.setIsActive(false);
         vendorRepository.save(vendor);
+        eventPublisher.publishEvent(new VendorChangedEvent(vendor));
     }
 
     public void activateVendor(Long vendorId) {
@@ -184,5 +234,6 @@ public class VendorService {
                 .orElseThrow(() -> new RuntimeException("Vendor not found"));
         vendor.setIsActive(true);
         vendorRepository.save(vendor);
+        eventPublisher.publishEvent(new VendorChangedEvent(vendor));
     }
 }
@@ -0,0 +1,135 @@
+-- WanderFare baseline schema
+-- Mirrors the tables previously created by ddl-auto: update. Every statement is idempotent so the
+-- migration can also run against databases that were created by Hibernate (baseline-version 0).
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(255),
+    role ENUM('CUSTOMER', 'VENDOR', 'ADMIN') NOT NULL,
+    is_active BIT(1),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS customers (
+    user_id BIGINT NOT NULL,
+    delivery_address VARCHAR(255),
+    city VARCHAR(255),
+    postal_code VARCHAR(255),
+    preferences VARCHAR(255),
+    PRIMARY KEY (user_id),
+    CONSTRAINT fk_customers_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS vendors (
+    user_id BIGINT NOT NULL,
+    business_name VARCHAR(255) NOT NULL,
+    business_address VARCHAR(255),
+    city VARCHAR(255),
+    postal_code VARCHAR(255),
+    cuisine_type VARCHAR(255),
+    description TEXT,
+    opening_time TIME,
+    closing_time TIME,
+    minimum_order DECIMAL(10, 2),
+    delivery_fee DECIMAL(10, 2),
+    rating DECIMAL(3, 2),
+    total_reviews INT,
+    is_approved BIT(1),
+    image_url VARCHAR(255),
+    PRIMARY KEY (user_id),
+    CONSTRAINT fk_vendors_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS menu_items (
+    id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    price DECIMAL(10, 2) NOT NULL,
+    category VARCHAR(255),
+    is_available BIT(1),
+    is_vegetarian BIT(1),
+    is_vegan BIT(1),
+    is_spicy BIT(1),
+    preparation_time INT,
+    image_url VARCHAR(255),
+    ingredients TEXT,
+    nutritional_info TEXT,
+    vendor_id BIGINT NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_menu_items_vendor FOREIGN KEY (vendor_id) REFERENCES vendors (user_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS orders (
+    id BIGINT NOT NULL,
+    order_number VARCHAR(255) NOT NULL,
+    customer_id BIGINT NOT NULL,
+    vendor_id BIGINT NOT NULL,
+    total_amount DECIMAL(10, 2) NOT NULL,
+    delivery_fee DECIMAL(10, 2),
+    tax_amount DECIMAL(10, 2),
+    final_amount DECIMAL(10, 2),
+    status ENUM('PENDING', 'CONFIRMED', 'PREPARING', 'READY', 'OUT_FOR_DELIVERY', 'DELIVERED', 'CANCELLED') NOT NULL,
+    payment_status ENUM('PENDING', 'PAID', 'FAILED', 'REFUNDED'),
+    delivery_address VARCHAR(255) NOT NULL,
+    special_instructions TEXT,
+    estimated_delivery_time DATETIME(6),
+    actual_delivery_time DATETIME(6),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_orders_order_number UNIQUE (order_number),
+    CONSTRAINT fk_orders_customer FOREIGN KEY (customer_id) REFERENCES customers (user_id),
+    CONSTRAINT fk_orders_vendor FOREIGN KEY (vendor_id) REFERENCES vendors (user_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS order_items (
+    id BIGINT NOT NULL,
+    order_id BIGINT NOT NULL,
+    menu_item_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    unit_price DECIMAL(10, 2) NOT NULL,
+    total_price DECIMAL(10, 2) NOT NULL,
+    special_instructions TEXT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_items_menu_item FOREIGN KEY (menu_item_id) REFERENCES menu_items (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS daily_revenue_rollups (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    rollup_date DATE NOT NULL,
+    vendor_id BIGINT NOT NULL,
+    city VARCHAR(255) NOT NULL,
+    status ENUM('PENDING', 'CONFIRMED', 'PREPARING', 'READY', 'OUT_FOR_DELIVERY', 'DELIVERED', 'CANCELLED') NOT NULL,
+    order_count BIGINT NOT NULL,
+    revenue DECIMAL(14, 2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_rollup_day_vendor_city_status UNIQUE (rollup_date, vendor_id, city, status)
+) ENGINE = InnoDB;
+
+-- Sequence-emulating tables for the pooled id generators (allocationSize = 50).
+-- Each is seeded/raised past MAX(id) + one allocation block so ids written under AUTO_INCREMENT
+-- can never be handed out again.
+CREATE TABLE IF NOT EXISTS users_seq (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE IF NOT EXISTS orders_seq (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE IF NOT EXISTS order_items_seq (next_val BIGINT) ENGINE = InnoDB;
+CREATE TABLE IF NOT EXISTS menu_items_seq (next_val BIGINT) ENGINE = InnoDB;
+
+INSERT INTO users_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM users_seq);
+INSERT INTO orders_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM orders_seq);
+INSERT INTO order_items_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM order_items_seq);
+INSERT INTO menu_items_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM menu_items_seq);
+
+UPDATE users_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id) + 51, 1) FROM users));
+UPDATE orders_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id) + 51, 1) FROM orders));
+UPDATE order_items_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id) + 51, 1) FROM order_items));
+UPDATE menu_items_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id) + 51, 1) FROM menu_items));
@@ -0,0 +1,41 @@
+-- Index plan for the repository queries. Each index names the queries it serves; InnoDB appends
+-- the primary key to every secondary index, so trailing id columns are implicit.
+
+-- OrderRepository.calculateVendorRevenue, findByVendorIdAndDateRange, AnalyticsService:
+-- range on created_at within a vendor, status filter and SUM(final_amount) answered from the index
+CREATE INDEX idx_orders_vendor_created_status ON orders (vendor_id, created_at, status, final_amount);
+
+-- OrderRepository.findByVendorIdAndStatus (kitchen queues: PENDING/CONFIRMED/PREPARING)
+CREATE INDEX idx_orders_vendor_status ON orders (vendor_id, status, created_at);
+
+-- OrderRepository.findByStatus, countByStatus, countGroupedByStatus
+CREATE INDEX idx_orders_status_created ON orders (status, created_at);
+
+-- OrderRepository.findByCustomerIdAndStatus
+CREATE INDEX idx_orders_customer_status ON orders (customer_id, status);
+
+-- OrderItemRepository.findPopularItemsByVendor / findByOrderId: covering join from orders
+CREATE INDEX idx_order_items_order_menu ON order_items (order_id, menu_item_id, quantity);
+
+-- MenuItemRepository.findByVendorIdAndIsAvailable, findAvailableByVendorId,
+-- findByVendorWithFilters, findCategoriesByVendorId
+CREATE INDEX idx_menu_items_vendor_available_category ON menu_items (vendor_id, is_available, category);
+
+-- MenuItemRepository.findByCategory
+CREATE INDEX idx_menu_items_category ON menu_items (category);
+
+-- VendorRepository.findByIsApproved, findWithFilters, countByIsApproved
+CREATE INDEX idx_vendors_approved_city_cuisine ON vendors (is_approved, city, cuisine_type);
+
+-- VendorRepository.findByCuisineType
+CREATE INDEX idx_vendors_cuisine ON vendors (cuisine_type);
+
+-- VendorRepository.findByCity, CustomerRepository.findByCity
+CREATE INDEX idx_vendors_city ON vendors (city);
+CREATE INDEX idx_customers_city ON customers (city);
+
+-- UserRepository.findByRole, findByRoleAndIsActive, countGroupedByRole
+CREATE INDEX idx_users_role_active ON users (role, is_active);
+
+-- DailyRevenueRollupRepository.sumByStatusForVendor (covering)
+CREATE INDEX idx_rollups_vendor_date ON daily_revenue_rollups (vendor_id, rollup_date, status, order_count, revenue);
@@ -0,0 +1,10 @@
+-- Logged-out JWTs, keyed by token id (jti). Rows are only needed until the token would have
+-- expired anyway; TokenRevocationStore deletes them after that.
+CREATE TABLE revoked_tokens (
+    token_id VARCHAR(64) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    revoked_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (token_id),
+    INDEX idx_revoked_tokens_revoked_at (revoked_at),
+    INDEX idx_revoked_tokens_expires_at (expires_at)
+) ENGINE = InnoDB;
@@ -0,0 +1,12 @@
+-- One row per menu item price change, written by single edits and bulk repricing alike.
+CREATE TABLE menu_item_price_history (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    menu_item_id BIGINT NOT NULL,
+    vendor_id BIGINT NOT NULL,
+    old_price DECIMAL(10, 2) NOT NULL,
+    new_price DECIMAL(10, 2) NOT NULL,
+    changed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_price_history_item_changed (menu_item_id, changed_at),
+    INDEX idx_price_history_vendor_changed (vendor_id, changed_at)
+) ENGINE = InnoDB;
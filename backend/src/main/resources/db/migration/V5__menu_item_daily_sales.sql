@@ -0,0 +1,20 @@
+-- Units sold and revenue per menu item per day (cancelled orders excluded), maintained
+-- incrementally by PricePredictionService. Seeded here from the last 90 days of order_items.
+CREATE TABLE menu_item_daily_sales (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    vendor_id BIGINT NOT NULL,
+    menu_item_id BIGINT NOT NULL,
+    sales_date DATE NOT NULL,
+    quantity BIGINT NOT NULL,
+    revenue DECIMAL(14, 2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_item_sales_vendor_item_date UNIQUE (vendor_id, menu_item_id, sales_date),
+    INDEX idx_item_sales_vendor_date (vendor_id, sales_date)
+) ENGINE = InnoDB;
+
+INSERT INTO menu_item_daily_sales (vendor_id, menu_item_id, sales_date, quantity, revenue)
+SELECT o.vendor_id, oi.menu_item_id, DATE(o.created_at), SUM(oi.quantity), SUM(oi.total_price)
+FROM order_items oi
+JOIN orders o ON o.id = oi.order_id
+WHERE o.status <> 'CANCELLED' AND o.created_at >= CURRENT_DATE - INTERVAL 90 DAY
+GROUP BY o.vendor_id, oi.menu_item_id, DATE(o.created_at);
@@ -0,0 +1,11 @@
+-- One HyperLogLog sketch of distinct ordering customers per vendor per day, plus that day's order
+-- count. Sketches are written by CustomerSketchService (sparse or 4 KB dense, see HyperLogLog).
+CREATE TABLE vendor_customer_sketches (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    vendor_id BIGINT NOT NULL,
+    sketch_date DATE NOT NULL,
+    order_count BIGINT NOT NULL,
+    sketch VARBINARY(4200) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_customer_sketch_vendor_date UNIQUE (vendor_id, sketch_date)
+) ENGINE = InnoDB;
@@ -0,0 +1,15 @@
+-- Per-day HdrHistograms of delivered orders, one row per vendor and one per city (scope_key is the
+-- vendor id or the city name). duration_histogram holds placed-to-delivered seconds and
+-- eta_error_histogram delivered-minus-estimated seconds; both are written by DeliveryTimeService
+-- in the DurationHistogram encoding and only ever added to.
+CREATE TABLE delivery_time_histograms (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    scope VARCHAR(16) NOT NULL,
+    scope_key VARCHAR(255) NOT NULL,
+    histogram_date DATE NOT NULL,
+    delivered_count BIGINT NOT NULL,
+    duration_histogram BLOB NOT NULL,
+    eta_error_histogram BLOB NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_delivery_histogram_scope_key_date UNIQUE (scope, scope_key, histogram_date)
+) ENGINE = InnoDB;
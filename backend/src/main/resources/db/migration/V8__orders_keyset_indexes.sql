@@ -0,0 +1,31 @@
+-- Keyset pagination indexes for OrderRepository.findFirstByCustomerId / findByCustomerIdBefore,
+-- findFirstByVendorId / findByVendorIdBefore and findFirst / findAllBefore (newest first by
+-- created_at, then id). Kept out of V1's CREATE TABLE IF NOT EXISTS so databases whose orders
+-- table was created by ddl-auto get them too; each is created only if it isn't there yet.
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'orders'
+                 AND index_name = 'idx_orders_customer_created') = 0,
+              'CREATE INDEX idx_orders_customer_created ON orders (customer_id, created_at, id)',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'orders'
+                 AND index_name = 'idx_orders_vendor_created') = 0,
+              'CREATE INDEX idx_orders_vendor_created ON orders (vendor_id, created_at, id)',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'orders'
+                 AND index_name = 'idx_orders_created') = 0,
+              'CREATE INDEX idx_orders_created ON orders (created_at, id)',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
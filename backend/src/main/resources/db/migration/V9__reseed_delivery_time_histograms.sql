@@ -0,0 +1,3 @@
+-- Histograms written before DurationHistogram encoded each half into its own buffer can't be
+-- decoded. Clearing the table makes DeliveryTimeService re-seed it from orders on startup.
+DELETE FROM delivery_time_histograms;
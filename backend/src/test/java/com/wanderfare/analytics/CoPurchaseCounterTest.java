@@ -0,0 +1,111 @@
+package com.wanderfare.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoPurchaseCounterTest {
+
+    @Test
+    void neighboursAreRankedByCosineSimilarity() {
+        // Item 0 is in every basket; 1 and 2 are almost always ordered together
+        List<int[]> baskets = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            baskets.add(new int[]{0, 1, 2});
+        }
+        for (int i = 0; i < 6; i++) {
+            baskets.add(new int[]{0, 3});
+        }
+        baskets.add(new int[]{0, 1});
+
+        int[][] neighbours = CoPurchaseCounter.topNeighbours(baskets, basketsPerItem(baskets, 4), 3, 1);
+
+        // cos(1,2) = 4/sqrt(5*4) = 0.89 beats cos(1,0) = 5/sqrt(5*11) = 0.67
+        assertThat(neighbours[1]).containsExactly(2, 0);
+        assertThat(neighbours[2]).containsExactly(1, 0);
+        assertThat(neighbours[3]).containsExactly(0);
+        assertThat(neighbours[0]).containsExactly(3, 1, 2);
+    }
+
+    @Test
+    void keepsOnlyTheBestTopNWhateverTheVisitOrder() {
+        // Item 0 pairs with 1..6; pair (0, k) appears k times, so the best neighbours are 6, 5, 4
+        List<int[]> baskets = new ArrayList<>();
+        for (int k = 1; k <= 6; k++) {
+            for (int i = 0; i < k; i++) {
+                baskets.add(new int[]{0, k});
+            }
+        }
+
+        int[][] neighbours = CoPurchaseCounter.topNeighbours(baskets, basketsPerItem(baskets, 7), 3, 1);
+
+        assertThat(neighbours[0]).containsExactly(6, 5, 4);
+        assertThat(neighbours[6]).containsExactly(0);
+    }
+
+    @Test
+    void pairsBelowMinSupportAreDropped() {
+        List<int[]> baskets = List.of(new int[]{0, 1}, new int[]{0, 1}, new int[]{1, 2});
+
+        int[][] neighbours = CoPurchaseCounter.topNeighbours(baskets, basketsPerItem(baskets, 3), 5, 2);
+
+        assertThat(neighbours[0]).containsExactly(1);
+        assertThat(neighbours[1]).containsExactly(0);
+        assertThat(neighbours[2]).isNull();
+    }
+
+    @Test
+    void splitCountsMatchABruteForceCount() {
+        // Enough baskets for several fork/join leaves whose pair counts have to be merged
+        Random random = new Random(7);
+        List<int[]> baskets = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            int a = random.nextInt(30);
+            baskets.add(new int[]{a, a + 1 + random.nextInt(10)});
+        }
+        int[] perItem = basketsPerItem(baskets, 40);
+        Map<Long, Integer> pairCounts = new HashMap<>();
+        for (int[] basket : baskets) {
+            pairCounts.merge(((long) basket[0] << 32) | basket[1], 1, Integer::sum);
+        }
+
+        int[][] neighbours = new ForkJoinPool(4).invoke(ForkJoinTask.adapt(
+                () -> CoPurchaseCounter.topNeighbours(baskets, perItem, 5, 1)));
+
+        for (int item = 0; item < 40; item++) {
+            List<Double> expected = new ArrayList<>();
+            for (int other = 0; other < 40; other++) {
+                Integer count = pairCounts.get(((long) Math.min(item, other) << 32) | Math.max(item, other));
+                if (other != item && count != null) {
+                    expected.add(count / Math.sqrt((double) perItem[item] * perItem[other]));
+                }
+            }
+            expected.sort(Comparator.reverseOrder());
+            List<Double> actual = new ArrayList<>();
+            for (int other : neighbours[item]) {
+                Integer count = pairCounts.get(((long) Math.min(item, other) << 32) | Math.max(item, other));
+                actual.add(count / Math.sqrt((double) perItem[item] * perItem[other]));
+            }
+            assertThat(actual).as("item %d", item).isEqualTo(expected.subList(0, Math.min(5, expected.size())));
+        }
+    }
+
+    private static int[] basketsPerItem(List<int[]> baskets, int items) {
+        int[] counts = new int[items];
+        for (int[] basket : baskets) {
+            for (int item : basket) {
+                counts[item]++;
+            }
+        }
+        return counts;
+    }
+}
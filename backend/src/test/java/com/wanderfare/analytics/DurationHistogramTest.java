@@ -0,0 +1,110 @@
+package com.wanderfare.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DurationHistogramTest {
+
+    private static final long SEVEN_DAYS = 7L * 24 * 3600;
+
+    @Test
+    void percentilesAreWithinOnePercent() {
+        DurationHistogram histogram = new DurationHistogram();
+        for (long seconds = 1; seconds <= 10_000; seconds++) {
+            histogram.record(seconds);
+        }
+
+        assertThat(histogram.getTotalCount()).isEqualTo(10_000);
+        assertThat((double) histogram.valueAtPercentile(50)).isCloseTo(5_000, within(50.0));
+        assertThat((double) histogram.valueAtPercentile(90)).isCloseTo(9_000, within(90.0));
+        assertThat((double) histogram.valueAtPercentile(99)).isCloseTo(9_900, within(99.0));
+        assertThat(histogram.getMean()).isCloseTo(5_000.5, within(50.0));
+    }
+
+    // Small values are recorded exactly
+    @Test
+    void negativeValuesSortBeforeNonNegativeOnes() {
+        DurationHistogram histogram = new DurationHistogram();
+        for (long seconds = 1; seconds <= 100; seconds++) {
+            histogram.record(-seconds);
+            histogram.record(seconds);
+        }
+
+        assertThat(histogram.valueAtPercentile(0)).isEqualTo(-100);
+        assertThat(histogram.valueAtPercentile(25)).isEqualTo(-51);
+        assertThat(histogram.valueAtPercentile(50)).isEqualTo(-1);
+        assertThat(histogram.valueAtPercentile(75)).isEqualTo(50);
+        assertThat(histogram.valueAtPercentile(100)).isEqualTo(100);
+        assertThat(histogram.getMean()).isCloseTo(0, within(0.5));
+    }
+
+    @Test
+    void allEarlyErrorsStayNegative() {
+        DurationHistogram histogram = new DurationHistogram();
+        for (long seconds = 60; seconds <= 600; seconds += 60) {
+            histogram.record(-seconds);
+        }
+
+        assertThat((double) histogram.valueAtPercentile(10)).isCloseTo(-600, within(6.0));
+        assertThat((double) histogram.valueAtPercentile(50)).isCloseTo(-360, within(3.6));
+        assertThat((double) histogram.valueAtPercentile(100)).isCloseTo(-60, within(0.6));
+        assertThat(histogram.getMean()).isCloseTo(-330, within(3.3));
+    }
+
+    @Test
+    void valuesBeyondSevenDaysAreClamped() {
+        DurationHistogram histogram = new DurationHistogram();
+        histogram.record(30L * 24 * 3600);
+        histogram.record(-30L * 24 * 3600);
+
+        assertThat((double) histogram.valueAtPercentile(100)).isCloseTo(SEVEN_DAYS, within(SEVEN_DAYS * 0.01));
+        assertThat((double) histogram.valueAtPercentile(0)).isCloseTo(-SEVEN_DAYS, within(SEVEN_DAYS * 0.01));
+    }
+
+    @Test
+    void emptyHistogramReadsAsZero() {
+        DurationHistogram histogram = DurationHistogram.fromBytes(new DurationHistogram().toBytes());
+
+        assertThat(histogram.getTotalCount()).isZero();
+        assertThat(histogram.valueAtPercentile(50)).isZero();
+        assertThat(histogram.getMean()).isZero();
+    }
+
+    @Test
+    void bytesRoundTripKeepsBothSides() {
+        DurationHistogram histogram = new DurationHistogram();
+        Random random = new Random(11);
+        for (int i = 0; i < 5_000; i++) {
+            histogram.record(random.nextInt(7_200) - 1_800);
+        }
+
+        DurationHistogram restored = DurationHistogram.fromBytes(histogram.toBytes());
+
+        assertThat(restored.getTotalCount()).isEqualTo(histogram.getTotalCount());
+        assertThat(restored.getMean()).isEqualTo(histogram.getMean());
+        for (double percentile : new double[]{0, 1, 10, 25, 50, 75, 90, 99, 100}) {
+            assertThat(restored.valueAtPercentile(percentile)).as("p%s", percentile)
+                    .isEqualTo(histogram.valueAtPercentile(percentile));
+        }
+    }
+
+    @Test
+    void addedHistogramsMatchRecordingEverythingInOne() {
+        DurationHistogram monday = new DurationHistogram();
+        DurationHistogram tuesday = new DurationHistogram();
+        DurationHistogram both = new DurationHistogram();
+        for (long seconds = -300; seconds <= 3_000; seconds += 7) {
+            (seconds % 2 == 0 ? monday : tuesday).record(seconds);
+            both.record(seconds);
+        }
+
+        DurationHistogram sum = DurationHistogram.fromBytes(monday.toBytes());
+        sum.add(tuesday);
+
+        assertThat(sum.toBytes()).isEqualTo(both.toBytes());
+    }
+}
@@ -0,0 +1,105 @@
+package com.wanderfare.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {20_000, 100_000, 1_000_000})
+    void estimateStaysWithinThreeStandardErrors(int n) {
+        HyperLogLog sequential = new HyperLogLog();
+        HyperLogLog random = new HyperLogLog();
+        Random ids = new Random(n);
+        for (int i = 1; i <= n; i++) {
+            sequential.add(i);
+            random.add(ids.nextLong());
+        }
+
+        double band = 3 * HyperLogLog.RELATIVE_STANDARD_ERROR * n;
+        assertThat((double) sequential.estimate()).isCloseTo(n, within(band));
+        assertThat((double) random.estimate()).isCloseTo(n, within(band));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100, 1_000, 5_000})
+    void smallCountsAreNearExact(int n) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 1; i <= n; i++) {
+            sketch.add(i);
+            sketch.add(i); // repeats don't count
+        }
+
+        assertThat((double) sketch.estimate()).isCloseTo(n, within(Math.max(1, n * 0.02)));
+    }
+
+    @Test
+    void mergeIsIdempotentAndMatchesTheUnion() {
+        HyperLogLog a = new HyperLogLog();
+        HyperLogLog b = new HyperLogLog();
+        HyperLogLog union = new HyperLogLog();
+        for (long id = 1; id <= 30_000; id++) {
+            (id % 3 == 0 ? a : b).add(id);
+            union.add(id);
+        }
+        // Overlap: b also sees some of a's ids
+        for (long id = 3; id <= 30_000; id += 9) {
+            b.add(id);
+        }
+
+        HyperLogLog merged = a.copy();
+        merged.merge(b);
+        assertThat(merged.toBytes()).isEqualTo(union.toBytes());
+
+        long once = merged.estimate();
+        merged.merge(b);
+        merged.merge(a);
+        merged.merge(merged.copy());
+        assertThat(merged.estimate()).isEqualTo(once);
+        assertThat(merged.toBytes()).isEqualTo(union.toBytes());
+    }
+
+    @Test
+    void sparseFormRoundTrips() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = 1; id <= 300; id++) {
+            sketch.add(id);
+        }
+
+        byte[] bytes = sketch.toBytes();
+        assertThat(bytes.length).isLessThan(1 + 4096);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+        assertThat(restored.toBytes()).isEqualTo(bytes);
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void denseFormRoundTrips() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = 1; id <= 100_000; id++) {
+            sketch.add(id);
+        }
+
+        byte[] bytes = sketch.toBytes();
+        assertThat(bytes).hasSize(1 + 4096);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+        assertThat(restored.toBytes()).isEqualTo(bytes);
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void emptySketchRoundTrips() {
+        HyperLogLog restored = HyperLogLog.fromBytes(new HyperLogLog().toBytes());
+
+        assertThat(restored.isEmpty()).isTrue();
+        assertThat(restored.estimate()).isZero();
+    }
+}
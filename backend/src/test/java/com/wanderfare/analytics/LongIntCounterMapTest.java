@@ -0,0 +1,87 @@
+package com.wanderfare.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongIntCounterMapTest {
+
+    @Test
+    void incrementsAccumulatePerKey() {
+        LongIntCounterMap map = new LongIntCounterMap(4);
+        map.increment(7, 1);
+        map.increment(7, 2);
+        map.increment(-3, 5);
+
+        assertThat(map.get(7)).isEqualTo(3);
+        assertThat(map.get(-3)).isEqualTo(5);
+        assertThat(map.get(8)).isZero();
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void keyZeroIsRejected() {
+        LongIntCounterMap map = new LongIntCounterMap(4);
+
+        assertThatThrownBy(() -> map.increment(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(map.get(0)).isZero();
+    }
+
+    @Test
+    void packedPairKeysCollideAndProbe() {
+        // Pair keys differ only in the high or low 32 bits; many land in the same slot of a
+        // 16-slot table before the first resize
+        LongIntCounterMap map = new LongIntCounterMap(1);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int a = 0; a < 3; a++) {
+            for (int b = a + 1; b < 4; b++) {
+                long key = ((long) a << 32) | b;
+                map.increment(key, a + b);
+                expected.merge(key, a + b, Integer::sum);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        expected.forEach((key, count) -> assertThat(map.get(key)).as("key %d", key).isEqualTo(count));
+    }
+
+    @Test
+    void growsPastManyResizesWithoutLosingCounts() {
+        LongIntCounterMap map = new LongIntCounterMap(1);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(50_000) * 0x1_0000_0000L + random.nextInt(4);
+            int delta = 1 + random.nextInt(3);
+            map.increment(key, delta);
+            expected.merge(key, delta, Integer::sum);
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        Map<Long, Integer> visited = new HashMap<>();
+        map.forEach((key, value) -> assertThat(visited.put(key, value)).isNull());
+        assertThat(visited).isEqualTo(expected);
+    }
+
+    @Test
+    void addAllSumsSharedKeys() {
+        LongIntCounterMap left = new LongIntCounterMap(4);
+        left.increment(1, 2);
+        left.increment(2, 3);
+        LongIntCounterMap right = new LongIntCounterMap(4);
+        right.increment(2, 4);
+        right.increment(3, 5);
+
+        left.addAll(right);
+
+        assertThat(left.get(1)).isEqualTo(2);
+        assertThat(left.get(2)).isEqualTo(7);
+        assertThat(left.get(3)).isEqualTo(5);
+        assertThat(left.size()).isEqualTo(3);
+    }
+}
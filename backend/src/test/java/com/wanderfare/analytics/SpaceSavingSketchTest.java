@@ -0,0 +1,109 @@
+package com.wanderfare.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingSketchTest {
+
+    private static final int CAPACITY = 20;
+
+    @Test
+    void mergedEstimatesBracketExactCounts() {
+        Random random = new Random(42);
+        Map<Long, Long> exact = new HashMap<>();
+        SpaceSavingSketch merged = new SpaceSavingSketch(CAPACITY);
+
+        // A week of days, each with its own skewed mix of 500 items, summarised and merged like
+        // PopularItemsService does for its windows
+        for (int day = 0; day < 7; day++) {
+            SpaceSavingSketch daySketch = new SpaceSavingSketch(CAPACITY);
+            for (int i = 0; i < 5_000; i++) {
+                long key = skewedKey(random, day);
+                long weight = 1 + random.nextInt(3);
+                daySketch.add(key, weight);
+                exact.merge(key, weight, Long::sum);
+            }
+            merged.merge(daySketch);
+        }
+
+        long total = exact.values().stream().mapToLong(Long::longValue).sum();
+        assertThat(merged.getTotal()).isEqualTo(total);
+
+        List<SpaceSavingSketch.Counter> tracked = merged.top(CAPACITY);
+        assertThat(tracked).hasSize(CAPACITY);
+        long minTracked = tracked.get(tracked.size() - 1).getCount();
+        for (SpaceSavingSketch.Counter counter : tracked) {
+            long trueCount = exact.get(counter.getKey());
+            assertThat(counter.getCount()).isGreaterThanOrEqualTo(trueCount);
+            assertThat(counter.getCount() - counter.getError()).isLessThanOrEqualTo(trueCount);
+        }
+        // Untracked keys can't have been undercounted past the smallest surviving counter...
+        exact.forEach((key, count) -> {
+            if (tracked.stream().noneMatch(c -> c.getKey() == key)) {
+                assertThat(count).isLessThanOrEqualTo(minTracked);
+            }
+        });
+        // ...so every key above total/capacity is still tracked
+        exact.forEach((key, count) -> {
+            if (count > total / CAPACITY) {
+                assertThat(tracked).anyMatch(c -> c.getKey() == key);
+            }
+        });
+    }
+
+    @Test
+    void mergeOfSketchesThatNeverEvictedIsExact() {
+        SpaceSavingSketch a = new SpaceSavingSketch(CAPACITY);
+        SpaceSavingSketch b = new SpaceSavingSketch(CAPACITY);
+        a.add(1, 5);
+        a.add(2, 3);
+        b.add(2, 4);
+        b.add(3, 1);
+
+        a.merge(b);
+
+        Map<Long, Long> counts = new HashMap<>();
+        for (SpaceSavingSketch.Counter counter : a.top(CAPACITY)) {
+            counts.put(counter.getKey(), counter.getCount());
+            assertThat(counter.getError()).isZero();
+        }
+        assertThat(counts).isEqualTo(Map.of(1L, 5L, 2L, 7L, 3L, 1L));
+    }
+
+    @Test
+    void mergeCreditsKeysMissingFromAFullSketch() {
+        SpaceSavingSketch a = new SpaceSavingSketch(2);
+        a.add(1, 3);
+        a.add(2, 6);
+        SpaceSavingSketch b = new SpaceSavingSketch(2);
+        b.add(1, 4);
+        b.add(3, 3);
+        b.add(4, 2); // evicts key 3: key 4 counts 5 with error 3, b's minimum is 4
+
+        a.merge(b);
+
+        Map<Long, SpaceSavingSketch.Counter> byKey = new HashMap<>();
+        a.top(2).forEach(c -> byKey.put(c.getKey(), c));
+        assertThat(byKey).containsOnlyKeys(2L, 4L);
+        // Key 2 may have occurred up to 4 times in b without being tracked there
+        assertThat(byKey.get(2L).getCount()).isEqualTo(10);
+        assertThat(byKey.get(2L).getError()).isEqualTo(4);
+        // and key 4 up to a's minimum of 3 times in a
+        assertThat(byKey.get(4L).getCount()).isEqualTo(8);
+        assertThat(byKey.get(4L).getError()).isEqualTo(6);
+        assertThat(a.getTotal()).isEqualTo(18);
+    }
+
+    private static long skewedKey(Random random, int day) {
+        // Roughly Zipfian over 500 keys, with the popular keys drifting from day to day
+        double u = random.nextDouble();
+        long rank = (long) Math.floor(Math.pow(500, u)) - 1;
+        return (rank + day * 3L) % 500;
+    }
+}
@@ -0,0 +1,173 @@
+package com.wanderfare.controller;
+
+import com.wanderfare.metrics.RequestMetricsFilter;
+import com.wanderfare.model.Customer;
+import com.wanderfare.model.MenuItem;
+import com.wanderfare.model.Order;
+import com.wanderfare.model.OrderItem;
+import com.wanderfare.model.User;
+import com.wanderfare.model.Vendor;
+import com.wanderfare.security.JwtUtil;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.wanderfare.metrics.SqlStatementAssertions.sqlStats;
+import static com.wanderfare.metrics.SqlStatementAssertions.statementsAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement counts of the endpoints most prone to N+1 regressions, measured through the real
+ * filter chain (JWT user lookup included) against the H2 test database.
+ */
+@SpringBootTest(properties = "wanderfare.sql-budget.expose-header=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EndpointSqlStatementTest {
+
+    private static final int ORDERS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User admin;
+    private Vendor vendor;
+    private Customer customer;
+    private final List<Order> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            admin = new User();
+            admin.setEmail("sql-admin-" + suffix + "@example.com");
+            admin.setPassword("password");
+            admin.setFirstName("Sql");
+            admin.setLastName("Admin");
+            admin.setRole(User.Role.ADMIN);
+            entityManager.persist(admin);
+
+            vendor = new Vendor();
+            vendor.setEmail("sql-vendor-" + suffix + "@example.com");
+            vendor.setPassword("password");
+            vendor.setFirstName("Sql");
+            vendor.setLastName("Vendor");
+            vendor.setBusinessName("Sql Kitchen");
+            vendor.setCity("Porto");
+            entityManager.persist(vendor);
+
+            customer = new Customer();
+            customer.setEmail("sql-customer-" + suffix + "@example.com");
+            customer.setPassword("password");
+            customer.setFirstName("Sql");
+            customer.setLastName("Customer");
+            entityManager.persist(customer);
+
+            MenuItem menuItem = new MenuItem();
+            menuItem.setName("Francesinha");
+            menuItem.setPrice(new BigDecimal("10.00"));
+            menuItem.setVendor(vendor);
+            entityManager.persist(menuItem);
+
+            for (int i = 0; i < ORDERS; i++) {
+                Order order = new Order();
+                order.setOrderNumber("SQL-" + suffix + "-" + i);
+                order.setCustomer(customer);
+                order.setVendor(vendor);
+                order.setStatus(Order.OrderStatus.DELIVERED);
+                order.setTotalAmount(new BigDecimal("10.00"));
+                order.setFinalAmount(new BigDecimal("12.50"));
+                order.setDeliveryAddress("1 Test Street");
+                order.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+                entityManager.persist(order);
+                orders.add(order);
+
+                OrderItem line = new OrderItem();
+                line.setOrder(order);
+                line.setMenuItem(menuItem);
+                line.setQuantity(1);
+                line.setUnitPrice(menuItem.getPrice());
+                line.setTotalPrice(menuItem.getPrice());
+                entityManager.persist(line);
+            }
+        });
+    }
+
+    @Test
+    void dashboardStatsStayWithinBudget() throws Exception {
+        MvcResult first = mockMvc.perform(as(admin, get("/admin/dashboard/stats")))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(12))
+                .andReturn();
+        assertThat(first.getResponse().getHeader(RequestMetricsFilter.STATEMENT_COUNT_HEADER))
+                .isEqualTo(String.valueOf(sqlStats(first).getStatementCount()));
+
+        // Served from the snapshot: only the JWT user lookup is left
+        mockMvc.perform(as(admin, get("/admin/dashboard/stats")))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(1));
+    }
+
+    @Test
+    void orderHistoryCostDoesNotGrowWithPageSize() throws Exception {
+        MvcResult small = mockMvc.perform(as(customer, get("/orders/customer/my-orders").param("size", "2")))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(3))
+                .andReturn();
+        MvcResult full = mockMvc.perform(as(customer, get("/orders/customer/my-orders").param("size", String.valueOf(ORDERS))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(sqlStats(full).getStatementCount()).isEqualTo(sqlStats(small).getStatementCount());
+    }
+
+    @Test
+    void orderLookupStaysWithinBudget() throws Exception {
+        mockMvc.perform(as(customer, get("/orders/" + orders.get(0).getId())))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(4));
+    }
+
+    @Test
+    void exportIsStreamedWithoutBuffering() throws Exception {
+        MvcResult export = mockMvc.perform(as(vendor, get("/orders/vendor/export")))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(export.getResponse().getHeader(RequestMetricsFilter.STATEMENT_COUNT_HEADER)).isNull();
+        assertThat(export.getResponse().getContentAsString().lines()).hasSize(ORDERS + 1);
+    }
+
+    private MockHttpServletRequestBuilder as(User user, MockHttpServletRequestBuilder request) {
+        String token = jwtUtil.generateToken(user, Map.of("role", user.getRole().name(), "userId", user.getId()));
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+}
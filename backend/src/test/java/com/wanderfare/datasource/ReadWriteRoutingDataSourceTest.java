@@ -0,0 +1,90 @@
+package com.wanderfare.datasource;
+
+import com.wanderfare.config.DataSourceConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes through the same wiring as {@link DataSourceConfig} against two embedded databases that
+ * each know their own name.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        primary = node("primary");
+        replica = node("replica");
+        DataSource routed = new DataSourceConfig().dataSource(primary, replica);
+        jdbcTemplate = new JdbcTemplate(routed);
+        transactionManager = new DataSourceTransactionManager(routed);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        String node = readOnly.execute(status -> nodeName());
+        assertThat(node).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionsGoToThePrimary() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        String node = readWrite.execute(status -> nodeName());
+        assertThat(node).isEqualTo("primary");
+
+        readWrite.executeWithoutResult(status ->
+                jdbcTemplate.update("INSERT INTO writes (id) VALUES (1)"));
+        assertThat(countWrites(primary)).isEqualTo(1);
+        assertThat(countWrites(replica)).isZero();
+    }
+
+    @Test
+    void workOutsideTransactionsGoesToThePrimary() {
+        assertThat(nodeName()).isEqualTo("primary");
+    }
+
+    private String nodeName() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static int countWrites(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM writes", Integer.class);
+    }
+
+    private static EmbeddedDatabase node(String name) {
+        EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(db);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(16))");
+        jdbc.execute("CREATE TABLE writes (id BIGINT)");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return db;
+    }
+}
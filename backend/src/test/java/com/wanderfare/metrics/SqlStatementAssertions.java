@@ -0,0 +1,51 @@
+package com.wanderfare.metrics;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.stream.Collectors;
+
+/**
+ * MockMvc matchers over the {@link RequestSqlStats} that {@link RequestMetricsFilter} recorded for
+ * the request, e.g. {@code mockMvc.perform(get("/orders/1")).andExpect(statementsAtMost(3))}.
+ * Failures list the statement shapes, so an N+1 shows up as one shape with a high count.
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static ResultMatcher statements(int expected) {
+        return result -> {
+            RequestSqlStats stats = sqlStats(result);
+            if (stats.getStatementCount() != expected) {
+                throw new AssertionError(describe(result, stats, "expected " + expected));
+            }
+        };
+    }
+
+    public static ResultMatcher statementsAtMost(int max) {
+        return result -> {
+            RequestSqlStats stats = sqlStats(result);
+            if (stats.getStatementCount() > max) {
+                throw new AssertionError(describe(result, stats, "expected at most " + max));
+            }
+        };
+    }
+
+    public static RequestSqlStats sqlStats(MvcResult result) {
+        Object stats = result.getRequest().getAttribute(RequestMetricsFilter.STATS_ATTRIBUTE);
+        if (!(stats instanceof RequestSqlStats)) {
+            throw new AssertionError("No SQL stats recorded; is RequestMetricsFilter in the MockMvc filter chain?");
+        }
+        return (RequestSqlStats) stats;
+    }
+
+    private static String describe(MvcResult result, RequestSqlStats stats, String expectation) {
+        String shapes = stats.getShapes().entrySet().stream()
+                .map(entry -> "  " + entry.getValue() + "x " + entry.getKey())
+                .collect(Collectors.joining("\n"));
+        return result.getRequest().getMethod() + " " + result.getRequest().getRequestURI() + " ran "
+                + stats.getStatementCount() + " SQL statements, " + expectation + ":\n" + shapes;
+    }
+}
@@ -0,0 +1,179 @@
+package com.wanderfare.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAINs the SQL Hibernate actually generates for the keyset pagination queries, against MySQL
+ * migrated by Flyway, and checks each one walks its keyset index without a filesort. Skipped when
+ * Docker isn't available.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.wanderfare.repository.OrderRepositoryQueryPlanTest$CapturingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderRepositoryQueryPlanTest {
+
+    private static final int CUSTOMERS = 40;
+    private static final int VENDORS = 20;
+    private static final int ORDERS = 20_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    private static boolean seeded;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime cursorTime = LocalDateTime.now().minusDays(30);
+    private final long cursorId = ORDERS / 2;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        if (!seeded) {
+            seed();
+            seeded = true;
+        }
+    }
+
+    @Test
+    void customerPagesUseTheCustomerKeysetIndex() {
+        assertPlan(() -> orderRepository.findFirstByCustomerId(1L, page()),
+                "idx_orders_customer_created", 1L, PAGE_SIZE + 1);
+        assertPlan(() -> orderRepository.findByCustomerIdBefore(1L, cursorTime, cursorId, page()),
+                "idx_orders_customer_created", 1L, cursorTime, cursorTime, cursorId, PAGE_SIZE + 1);
+    }
+
+    @Test
+    void vendorPagesUseTheVendorKeysetIndex() {
+        long vendorId = CUSTOMERS + 1;
+        assertPlan(() -> orderRepository.findFirstByVendorId(vendorId, page()),
+                "idx_orders_vendor_created", vendorId, PAGE_SIZE + 1);
+        assertPlan(() -> orderRepository.findByVendorIdBefore(vendorId, cursorTime, cursorId, page()),
+                "idx_orders_vendor_created", vendorId, cursorTime, cursorTime, cursorId, PAGE_SIZE + 1);
+    }
+
+    @Test
+    void adminPagesUseTheCreatedAtIndex() {
+        assertPlan(() -> orderRepository.findFirst(page()),
+                "idx_orders_created", PAGE_SIZE + 1);
+        assertPlan(() -> orderRepository.findAllBefore(cursorTime, cursorId, page()),
+                "idx_orders_created", cursorTime, cursorTime, cursorId, PAGE_SIZE + 1);
+    }
+
+    // Runs the repository call to capture its SQL, then EXPLAINs that SQL with the same arguments
+    // (in placeholder order, the LIMIT last)
+    private void assertPlan(Runnable query, String expectedIndex, Object... args) {
+        CapturingInspector.STATEMENTS.clear();
+        query.run();
+        String sql = CapturingInspector.STATEMENTS.stream()
+                .filter(statement -> statement.toLowerCase().replaceAll("\\s+", " ").contains(" from orders "))
+                .findFirst()
+                .orElseThrow();
+
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, bind(args));
+        assertThat(plan).hasSize(1);
+        Map<String, Object> row = plan.get(0);
+        assertThat(row.get("key")).as("index for %s", sql).isEqualTo(expectedIndex);
+        assertThat(String.valueOf(row.get("Extra"))).as("plan for %s", sql).doesNotContain("filesort");
+    }
+
+    private static Object[] bind(Object... args) {
+        Object[] bound = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            bound[i] = args[i] instanceof LocalDateTime time ? Timestamp.valueOf(time) : args[i];
+        }
+        return bound;
+    }
+
+    private static PageRequest page() {
+        return PageRequest.of(0, PAGE_SIZE);
+    }
+
+    // Enough rows, spread over customers, vendors and a year, that the optimizer prefers the
+    // indexes to scanning; ids 1..CUSTOMERS are customers and the next VENDORS ids vendors
+    private void seed() {
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= CUSTOMERS + VENDORS; id++) {
+            users.add(new Object[]{id, "user" + id + "@example.com", id <= CUSTOMERS ? "CUSTOMER" : "VENDOR"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password, first_name, last_name, role, is_active) " +
+                "VALUES (?, ?, 'password', 'Test', 'User', ?, 1)", users);
+        jdbcTemplate.update("INSERT INTO customers (user_id) SELECT id FROM users WHERE role = 'CUSTOMER'");
+        jdbcTemplate.update("INSERT INTO vendors (user_id, business_name, is_approved) " +
+                "SELECT id, CONCAT('Vendor ', id), 1 FROM users WHERE role = 'VENDOR'");
+
+        Random random = new Random(7);
+        LocalDateTime now = LocalDateTime.now();
+        String[] statuses = {"PENDING", "CONFIRMED", "PREPARING", "DELIVERED", "DELIVERED", "CANCELLED"};
+        List<Object[]> orders = new ArrayList<>(ORDERS);
+        for (long id = 1; id <= ORDERS; id++) {
+            orders.add(new Object[]{
+                    id,
+                    "ORD-" + id,
+                    1 + random.nextInt(CUSTOMERS),
+                    CUSTOMERS + 1 + random.nextInt(VENDORS),
+                    statuses[random.nextInt(statuses.length)],
+                    Timestamp.valueOf(now.minusMinutes(random.nextInt(365 * 24 * 60)))
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO orders (id, order_number, customer_id, vendor_id, total_amount, " +
+                "final_amount, status, delivery_address, created_at) VALUES (?, ?, ?, ?, 10.00, 10.80, ?, 'Street 1', ?)",
+                orders);
+        jdbcTemplate.execute("ANALYZE TABLE orders");
+    }
+}
@@ -0,0 +1,143 @@
+package com.wanderfare.security;
+
+import com.wanderfare.exception.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginAttemptThrottleTest {
+
+    private static final String EMAIL = "victim@example.com";
+
+    private LoginAttemptThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        throttle = new LoginAttemptThrottle();
+        ReflectionTestUtils.setField(throttle, "maxFailuresPerEmail", 5);
+        ReflectionTestUtils.setField(throttle, "maxFailuresPerIp", 8);
+        ReflectionTestUtils.setField(throttle, "windowSeconds", 900L);
+    }
+
+    @Test
+    void rejectsAnAccountOnceItsAttemptsFromOneIpAreUsedUp() {
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire(EMAIL, "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> throttle.acquire(EMAIL, "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .satisfies(e -> assertThat(((TooManyRequestsException) e).getRetryAfterSeconds()).isBetween(1L, 900L));
+        // Case only changes the spelling, not the account
+        assertThatThrownBy(() -> throttle.acquire("Victim@Example.com", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void attackerCannotLockTheOwnerOutFromAnotherIp() {
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire(EMAIL, "10.0.0.66");
+        }
+        assertThatThrownBy(() -> throttle.acquire(EMAIL, "10.0.0.66")).isInstanceOf(TooManyRequestsException.class);
+
+        assertThatCode(() -> throttle.acquire(EMAIL, "192.168.1.7")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void ipCapSpansAccounts() {
+        for (int i = 0; i < 8; i++) {
+            throttle.acquire("user" + i + "@example.com", "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> throttle.acquire("fresh@example.com", "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThatCode(() -> throttle.acquire("fresh@example.com", "10.0.0.2")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void ipRejectionDoesNotUseUpTheAccountAttempt() {
+        for (int i = 0; i < 8; i++) {
+            throttle.acquire("user" + i + "@example.com", "10.0.0.1");
+        }
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> throttle.acquire(EMAIL, "10.0.0.1")).isInstanceOf(TooManyRequestsException.class);
+        }
+
+        // Once the IP has room again the account still has all five attempts
+        for (int i = 0; i < 8; i++) {
+            throttle.recordSuccess("user" + i + "@example.com", "10.0.0.1");
+        }
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire(EMAIL, "10.0.0.1");
+        }
+        assertThatThrownBy(() -> throttle.acquire(EMAIL, "10.0.0.1")).isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void successGivesTheAttemptsBack() {
+        for (int i = 0; i < 4; i++) {
+            throttle.acquire(EMAIL, "10.0.0.1");
+        }
+        throttle.recordSuccess(EMAIL, "10.0.0.1");
+
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire(EMAIL, "10.0.0.1");
+        }
+        assertThatThrownBy(() -> throttle.acquire(EMAIL, "10.0.0.1")).isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void concurrentAttemptsCannotOvershootTheLimit() throws Exception {
+        int threads = 32;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        throttle.acquire(EMAIL, "10.0.0.1");
+                        return true;
+                    } catch (TooManyRequestsException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int admitted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(10, TimeUnit.SECONDS)) {
+                    admitted++;
+                }
+            }
+            assertThat(admitted).isEqualTo(5);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void pruneKeepsCountersOfTheCurrentWindow() {
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire(EMAIL, "10.0.0.1");
+        }
+
+        throttle.pruneExpired();
+
+        assertThatThrownBy(() -> throttle.acquire(EMAIL, "10.0.0.1")).isInstanceOf(TooManyRequestsException.class);
+    }
+}
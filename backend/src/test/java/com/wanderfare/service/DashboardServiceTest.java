@@ -0,0 +1,84 @@
+package com.wanderfare.service;
+
+import com.wanderfare.repository.OrderRepository;
+import com.wanderfare.repository.VendorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardServiceTest {
+
+    private final DashboardService dashboardService = new DashboardService();
+    private final VendorRepository vendorRepository = mock(VendorRepository.class);
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final AtomicLong pending = new AtomicLong(3);
+
+    @BeforeEach
+    void setUp() {
+        UserService userService = mock(UserService.class);
+        when(userService.getUserStatistics()).thenReturn(Map.of("vendors", 5L, "customers", 7L));
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.countGroupedByStatus()).thenReturn(List.of());
+        RevenueRollupService revenueRollupService = mock(RevenueRollupService.class);
+        when(revenueRollupService.getRevenueSummary(isNull(), any(), any())).thenReturn(Map.of());
+        when(vendorRepository.countByIsApproved(false)).thenAnswer(invocation -> pending.get());
+
+        executor.setCorePoolSize(4);
+        executor.initialize();
+        ReflectionTestUtils.setField(dashboardService, "userService", userService);
+        ReflectionTestUtils.setField(dashboardService, "vendorRepository", vendorRepository);
+        ReflectionTestUtils.setField(dashboardService, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(dashboardService, "revenueRollupService", revenueRollupService);
+        ReflectionTestUtils.setField(dashboardService, "dashboardExecutor", executor);
+        ReflectionTestUtils.setField(dashboardService, "cacheTtlMs", 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void servesTheCachedSnapshotWithinTheTtl() {
+        assertThat(dashboardService.getDashboardStats().get("pendingVendors")).isEqualTo(3L);
+        pending.set(2);
+
+        assertThat(dashboardService.getDashboardStats().get("pendingVendors")).isEqualTo(3L);
+    }
+
+    @Test
+    void invalidateForcesARecompute() {
+        dashboardService.getDashboardStats();
+        pending.set(2);
+        dashboardService.invalidate();
+
+        assertThat(dashboardService.getDashboardStats().get("pendingVendors")).isEqualTo(2L);
+    }
+
+    @Test
+    void refreshRunningDuringAnInvalidationIsNotReused() {
+        // The vendor is approved (and the cache invalidated) after the refresh read its count
+        when(vendorRepository.countByIsApproved(false)).thenAnswer(invocation -> {
+            long count = pending.get();
+            pending.set(2);
+            dashboardService.invalidate();
+            return count;
+        });
+        assertThat(dashboardService.getDashboardStats().get("pendingVendors")).isEqualTo(3L);
+
+        when(vendorRepository.countByIsApproved(false)).thenAnswer(invocation -> pending.get());
+        assertThat(dashboardService.getDashboardStats().get("pendingVendors")).isEqualTo(2L);
+    }
+}
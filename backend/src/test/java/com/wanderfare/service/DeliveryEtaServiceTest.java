@@ -0,0 +1,179 @@
+package com.wanderfare.service;
+
+import com.wanderfare.event.OrderStatusChangedEvent;
+import com.wanderfare.model.DeliveryTimeHistogram.Scope;
+import com.wanderfare.model.MenuItem;
+import com.wanderfare.model.Order;
+import com.wanderfare.model.OrderItem;
+import com.wanderfare.model.Vendor;
+import com.wanderfare.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DeliveryEtaServiceTest {
+
+    private static final LocalDateTime PLACED_AT = LocalDateTime.of(2026, 3, 2, 12, 0);
+
+    private final DeliveryEtaService etaService = new DeliveryEtaService();
+    private final List<Object[]> preparingCounts = new ArrayList<>();
+    private final Map<String, Long> vendorMedians = new HashMap<>();
+    private final Map<String, Long> cityMedians = new HashMap<>();
+    private final Vendor vendor = vendor(1L, "Lisbon");
+
+    @BeforeEach
+    void setUp() {
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.countByVendorInStatuses(any())).thenReturn(preparingCounts);
+        DeliveryTimeService deliveryTimeService = mock(DeliveryTimeService.class);
+        when(deliveryTimeService.getMedianDurationSeconds(eq(Scope.VENDOR), any(), any(), anyLong())).thenReturn(vendorMedians);
+        when(deliveryTimeService.getMedianDurationSeconds(eq(Scope.CITY), any(), any(), anyLong())).thenReturn(cityMedians);
+
+        ReflectionTestUtils.setField(etaService, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(etaService, "deliveryTimeService", deliveryTimeService);
+        ReflectionTestUtils.setField(etaService, "defaultPreparationMinutes", 15);
+        ReflectionTestUtils.setField(etaService, "minutesPerQueuedOrder", 4);
+        ReflectionTestUtils.setField(etaService, "transitMinutes", 20);
+        ReflectionTestUtils.setField(etaService, "defaultMinutes", 30);
+        ReflectionTestUtils.setField(etaService, "historyDays", 14);
+        ReflectionTestUtils.setField(etaService, "minHistoryDeliveries", 20);
+    }
+
+    @Test
+    void slowestItemSetsThePreparationTime() {
+        etaService.init();
+
+        // 25 minutes of cooking (the 10-minute item and the default 15 run alongside it) + 20 transit
+        assertThat(etaService.estimateDeliveryTime(vendor, items(10, 25, null), PLACED_AT))
+                .isEqualTo(PLACED_AT.plusMinutes(45));
+    }
+
+    @Test
+    void itemsWithoutAPreparationTimeUseTheDefault() {
+        etaService.init();
+
+        assertThat(etaService.estimateDeliveryTime(vendor, items(5, null), PLACED_AT))
+                .isEqualTo(PLACED_AT.plusMinutes(35));
+    }
+
+    @Test
+    void eachPreparingOrderAddsItsMinutes() {
+        preparingCounts.add(new Object[]{vendor.getId(), 3L});
+        preparingCounts.add(new Object[]{2L, 9L});
+        etaService.init();
+
+        assertThat(etaService.getQueueDepth(vendor.getId())).isEqualTo(3);
+        // 25 + 3 x 4 + 20
+        assertThat(etaService.estimateDeliveryTime(vendor, items(25), PLACED_AT))
+                .isEqualTo(PLACED_AT.plusMinutes(57));
+    }
+
+    @Test
+    void medianIsAFloorNotAnAddition() {
+        vendorMedians.put(vendor.getId().toString(), 70 * 60L);
+        etaService.init();
+
+        assertThat(etaService.estimateDeliveryTime(vendor, items(25), PLACED_AT))
+                .isEqualTo(PLACED_AT.plusMinutes(70));
+        // A kitchen estimate above the median wins
+        assertThat(etaService.estimateDeliveryTime(vendor, items(60), PLACED_AT))
+                .isEqualTo(PLACED_AT.plusMinutes(80));
+    }
+
+    @Test
+    void vendorWithoutHistoryFallsBackToItsCityThenTheDefault() {
+        cityMedians.put("Lisbon", 50 * 60L);
+        etaService.init();
+
+        assertThat(etaService.estimateDeliveryTime(vendor, items(5), PLACED_AT))
+                .isEqualTo(PLACED_AT.plusMinutes(50));
+        // No vendor or city history: the 30-minute default is the floor
+        assertThat(etaService.estimateDeliveryTime(vendor(3L, "Faro"), items(5), PLACED_AT))
+                .isEqualTo(PLACED_AT.plusMinutes(30));
+    }
+
+    @Test
+    void preparingTransitionsMoveTheQueue() {
+        etaService.init();
+
+        etaService.onOrderStatusChanged(transition(Order.OrderStatus.CONFIRMED, Order.OrderStatus.PREPARING));
+        etaService.onOrderStatusChanged(transition(Order.OrderStatus.CONFIRMED, Order.OrderStatus.PREPARING));
+        assertThat(etaService.getQueueDepth(vendor.getId())).isEqualTo(2);
+        assertThat(etaService.estimateDeliveryTime(vendor, items(25), PLACED_AT))
+                .isEqualTo(PLACED_AT.plusMinutes(53));
+
+        etaService.onOrderStatusChanged(transition(Order.OrderStatus.PREPARING, Order.OrderStatus.READY));
+        assertThat(etaService.getQueueDepth(vendor.getId())).isEqualTo(1);
+        etaService.onOrderStatusChanged(transition(Order.OrderStatus.PREPARING, Order.OrderStatus.CANCELLED));
+        assertThat(etaService.getQueueDepth(vendor.getId())).isZero();
+
+        // Transitions that don't touch PREPARING leave it alone
+        etaService.onOrderStatusChanged(transition(Order.OrderStatus.READY, Order.OrderStatus.OUT_FOR_DELIVERY));
+        assertThat(etaService.getQueueDepth(vendor.getId())).isZero();
+    }
+
+    @Test
+    void queueDepthNeverReadsNegative() {
+        etaService.init();
+
+        // A PREPARING order counted before startup leaves the kitchen before the next resync
+        etaService.onOrderStatusChanged(transition(Order.OrderStatus.PREPARING, Order.OrderStatus.READY));
+
+        assertThat(etaService.getQueueDepth(vendor.getId())).isZero();
+        assertThat(etaService.estimateDeliveryTime(vendor, items(25), PLACED_AT))
+                .isEqualTo(PLACED_AT.plusMinutes(45));
+    }
+
+    @Test
+    void resyncReplacesDriftedCounts() {
+        etaService.init();
+        etaService.onOrderStatusChanged(transition(Order.OrderStatus.CONFIRMED, Order.OrderStatus.PREPARING));
+
+        preparingCounts.add(new Object[]{vendor.getId(), 4L});
+        etaService.resyncQueueDepths();
+        assertThat(etaService.getQueueDepth(vendor.getId())).isEqualTo(4);
+
+        preparingCounts.clear();
+        etaService.resyncQueueDepths();
+        assertThat(etaService.getQueueDepth(vendor.getId())).isZero();
+    }
+
+    private OrderStatusChangedEvent transition(Order.OrderStatus from, Order.OrderStatus to) {
+        Order order = new Order();
+        order.setVendor(vendor);
+        order.setStatus(to);
+        return new OrderStatusChangedEvent(order, from, false);
+    }
+
+    private static List<OrderItem> items(Integer... preparationMinutes) {
+        List<OrderItem> items = new ArrayList<>();
+        for (Integer minutes : preparationMinutes) {
+            MenuItem menuItem = new MenuItem();
+            menuItem.setPreparationTime(minutes);
+            OrderItem item = new OrderItem();
+            item.setMenuItem(menuItem);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static Vendor vendor(Long id, String city) {
+        Vendor vendor = new Vendor();
+        vendor.setId(id);
+        vendor.setCity(city);
+        return vendor;
+    }
+}
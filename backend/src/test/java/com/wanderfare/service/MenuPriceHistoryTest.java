@@ -0,0 +1,109 @@
+package com.wanderfare.service;
+
+import com.wanderfare.config.ModelMapperConfig;
+import com.wanderfare.dto.MenuItemDto;
+import com.wanderfare.dto.PriceAdjustmentRequest;
+import com.wanderfare.model.MenuItem;
+import com.wanderfare.model.MenuItemPriceHistory;
+import com.wanderfare.model.Vendor;
+import com.wanderfare.repository.MenuItemPriceHistoryRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Every way a menu price can change leaves a history row with the price it replaced.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({MenuItemService.class, MenuImportService.class, ModelMapperConfig.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+class MenuPriceHistoryTest {
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private MenuImportService menuImportService;
+
+    @Autowired
+    private MenuItemPriceHistoryRepository priceHistoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Vendor vendor;
+    private MenuItem bifana;
+    private MenuItem prego;
+
+    @BeforeEach
+    void setUp() {
+        vendor = new Vendor();
+        vendor.setEmail("history-vendor@example.com");
+        vendor.setPassword("password");
+        vendor.setFirstName("History");
+        vendor.setLastName("Vendor");
+        vendor.setBusinessName("History Kitchen");
+        entityManager.persist(vendor);
+
+        bifana = item("Bifana", "4.50");
+        prego = item("Prego", "6.00");
+        entityManager.flush();
+    }
+
+    @Test
+    void bulkAdjustmentRecordsOldAndNewPrices() {
+        PriceAdjustmentRequest request = new PriceAdjustmentRequest();
+        request.setMode(PriceAdjustmentRequest.Mode.PERCENTAGE);
+        request.setAmount(new BigDecimal("10"));
+
+        assertThat(menuItemService.adjustPrices(vendor.getId(), request)).containsEntry("updatedItems", 2);
+
+        entityManager.clear();
+        assertThat(priceHistoryRepository.findByMenuItemIdOrderByChangedAtDesc(bifana.getId()))
+                .extracting(MenuItemPriceHistory::getOldPrice, MenuItemPriceHistory::getNewPrice)
+                .containsExactly(tuple(new BigDecimal("4.50"), new BigDecimal("4.95")));
+        assertThat(menuItemService.getMenuItemById(prego.getId()).orElseThrow().getPrice())
+                .isEqualByComparingTo("6.60");
+    }
+
+    @Test
+    void importRecordsChangedPricesOnly() throws Exception {
+        String csv = "name,price,description\nBifana,4.80,\nPrego,6.00,Steak roll\nPica-pau,9.00,\n";
+        menuImportService.importMenu(vendor.getId(), MenuImportService.Format.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        entityManager.clear();
+        List<MenuItemPriceHistory> history = priceHistoryRepository.findAll();
+        assertThat(history)
+                .extracting(MenuItemPriceHistory::getMenuItemId, MenuItemPriceHistory::getOldPrice,
+                        MenuItemPriceHistory::getNewPrice)
+                .containsExactly(tuple(bifana.getId(), new BigDecimal("4.50"), new BigDecimal("4.80")));
+    }
+
+    private MenuItem item(String name, String price) {
+        MenuItem item = new MenuItem();
+        item.setName(name);
+        item.setPrice(new BigDecimal(price));
+        item.setVendor(vendor);
+        entityManager.persist(item);
+        return item;
+    }
+}
@@ -0,0 +1,179 @@
+package com.wanderfare.service;
+
+import com.wanderfare.config.ModelMapperConfig;
+import com.wanderfare.dto.OrderDto;
+import com.wanderfare.exception.TooManyRequestsException;
+import com.wanderfare.model.Customer;
+import com.wanderfare.model.MenuItem;
+import com.wanderfare.model.Order;
+import com.wanderfare.model.Vendor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Admission slots as OrderService takes and returns them. Each call commits on its own, as it would
+ * in production, since slots are released on rollback and by after-commit status listeners.
+ */
+@DataJpaTest(properties = "wanderfare.orders.admission.max-active-per-vendor=3")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({OrderService.class, OrderAdmissionService.class, ModelMapperConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderAdmissionServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderAdmissionService admissionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @MockBean
+    private DeliveryEtaService deliveryEtaService;
+
+    private Customer customer;
+    private Vendor vendor;
+    private MenuItem menuItem;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            customer = new Customer();
+            customer.setEmail("admission-customer-" + suffix + "@example.com");
+            customer.setPassword("password");
+            customer.setFirstName("Admission");
+            customer.setLastName("Customer");
+            entityManager.persist(customer);
+
+            vendor = new Vendor();
+            vendor.setEmail("admission-vendor-" + suffix + "@example.com");
+            vendor.setPassword("password");
+            vendor.setFirstName("Admission");
+            vendor.setLastName("Vendor");
+            vendor.setBusinessName("Admission Kitchen");
+            entityManager.persist(vendor);
+
+            menuItem = new MenuItem();
+            menuItem.setName("Caldo Verde");
+            menuItem.setPrice(new BigDecimal("6.00"));
+            menuItem.setVendor(vendor);
+            entityManager.persist(menuItem);
+        });
+    }
+
+    @Test
+    void vendorAtTheCapIsTurnedAway() {
+        for (int i = 0; i < 3; i++) {
+            orderService.createOrder(customer.getId(), order(menuItem.getId()));
+        }
+
+        assertThatThrownBy(() -> orderService.createOrder(customer.getId(), order(menuItem.getId())))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(admissionService.getActiveOrders(vendor.getId())).isEqualTo(3);
+        assertThat(entityManager.createQuery("SELECT COUNT(o) FROM Order o WHERE o.vendor.id = :vendorId", Long.class)
+                .setParameter("vendorId", vendor.getId())
+                .getSingleResult()).isEqualTo(3L);
+    }
+
+    @Test
+    void rolledBackOrderGivesItsSlotBack() {
+        orderService.createOrder(customer.getId(), order(menuItem.getId()));
+
+        // Admitted, then rolled back on the unknown menu item
+        assertThatThrownBy(() -> orderService.createOrder(customer.getId(), order(-1L)))
+                .hasMessageContaining("not found");
+
+        assertThat(admissionService.getActiveOrders(vendor.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void leavingTheActiveStatusesFreesTheSlot() {
+        Long first = orderService.createOrder(customer.getId(), order(menuItem.getId())).getId();
+        Long second = orderService.createOrder(customer.getId(), order(menuItem.getId())).getId();
+        orderService.createOrder(customer.getId(), order(menuItem.getId()));
+
+        orderService.updateOrderStatus(first, Order.OrderStatus.PREPARING);
+        assertThat(admissionService.getActiveOrders(vendor.getId())).isEqualTo(3);
+        orderService.updateOrderStatus(first, Order.OrderStatus.READY);
+        assertThat(admissionService.getActiveOrders(vendor.getId())).isEqualTo(2);
+        orderService.cancelOrder(second);
+        assertThat(admissionService.getActiveOrders(vendor.getId())).isEqualTo(1);
+
+        orderService.createOrder(customer.getId(), order(menuItem.getId()));
+        orderService.createOrder(customer.getId(), order(menuItem.getId()));
+        assertThatThrownBy(() -> orderService.createOrder(customer.getId(), order(menuItem.getId())))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        // Back into an active status: counted even though it takes the vendor over the cap
+        orderService.updateOrderStatus(first, Order.OrderStatus.PREPARING);
+        assertThat(admissionService.getActiveOrders(vendor.getId())).isEqualTo(4);
+    }
+
+    @Test
+    void countsAreRebuiltFromTheOrdersTableAtStartup() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Vendor managed = entityManager.find(Vendor.class, vendor.getId());
+            Customer buyer = entityManager.find(Customer.class, customer.getId());
+            int i = 0;
+            for (Order.OrderStatus orderStatus : List.of(Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED,
+                    Order.OrderStatus.PREPARING, Order.OrderStatus.READY, Order.OrderStatus.DELIVERED,
+                    Order.OrderStatus.CANCELLED)) {
+                Order order = new Order();
+                order.setOrderNumber("ADM-" + vendor.getId() + "-" + i++);
+                order.setCustomer(buyer);
+                order.setVendor(managed);
+                order.setStatus(orderStatus);
+                order.setTotalAmount(new BigDecimal("6.00"));
+                order.setFinalAmount(new BigDecimal("6.48"));
+                order.setDeliveryAddress("1 Test Street");
+                order.setCreatedAt(LocalDateTime.now());
+                entityManager.persist(order);
+            }
+        });
+
+        OrderAdmissionService restarted = beanFactory.createBean(OrderAdmissionService.class);
+
+        assertThat(restarted.getActiveOrders(vendor.getId())).isEqualTo(3);
+        assertThatThrownBy(() -> restarted.admit(vendor.getId())).isInstanceOf(TooManyRequestsException.class);
+    }
+
+    private OrderDto order(Long menuItemId) {
+        OrderDto.OrderItemDto item = new OrderDto.OrderItemDto();
+        item.setMenuItemId(menuItemId);
+        item.setQuantity(1);
+        OrderDto orderDto = new OrderDto();
+        orderDto.setVendorId(vendor.getId());
+        orderDto.setDeliveryAddress("1 Test Street");
+        orderDto.setOrderItems(List.of(item));
+        return orderDto;
+    }
+}
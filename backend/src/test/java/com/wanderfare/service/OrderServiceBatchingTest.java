@@ -0,0 +1,135 @@
+package com.wanderfare.service;
+
+import com.wanderfare.config.ModelMapperConfig;
+import com.wanderfare.dto.OrderDto;
+import com.wanderfare.metrics.RequestSqlStats;
+import com.wanderfare.model.Customer;
+import com.wanderfare.model.MenuItem;
+import com.wanderfare.model.Vendor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Order lines must reach the database as one batched insert per table, however many items the
+ * order has. Statements are counted through {@link com.wanderfare.metrics.SqlStatementCounter},
+ * which sees each SQL string once per prepared statement.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({OrderService.class, ModelMapperConfig.class})
+class OrderServiceBatchingTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private DeliveryEtaService deliveryEtaService;
+
+    @MockBean
+    private OrderAdmissionService orderAdmissionService;
+
+    private Customer customer;
+    private Vendor vendor;
+    private final List<MenuItem> menuItems = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        customer = new Customer();
+        customer.setEmail("batch-customer@example.com");
+        customer.setPassword("password");
+        customer.setFirstName("Batch");
+        customer.setLastName("Customer");
+        entityManager.persist(customer);
+
+        vendor = new Vendor();
+        vendor.setEmail("batch-vendor@example.com");
+        vendor.setPassword("password");
+        vendor.setFirstName("Batch");
+        vendor.setLastName("Vendor");
+        vendor.setBusinessName("Batch Kitchen");
+        vendor.setDeliveryFee(new BigDecimal("2.50"));
+        entityManager.persist(vendor);
+
+        for (int i = 0; i < 30; i++) {
+            MenuItem item = new MenuItem();
+            item.setName("Dish " + i);
+            item.setPrice(new BigDecimal("9.99"));
+            item.setVendor(vendor);
+            entityManager.persist(item);
+            menuItems.add(item);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestSqlStats.end();
+    }
+
+    @Test
+    void orderLinesAreInsertedInOneBatch() {
+        Map<String, Integer> single = insertShapes(1);
+        Map<String, Integer> large = insertShapes(25);
+
+        assertThat(countFor(large, "insert into orders ")).isEqualTo(1);
+        assertThat(countFor(large, "insert into order_items ")).isEqualTo(1);
+        assertThat(large).isEqualTo(single);
+    }
+
+    // Statements prepared for one createOrder call (flushed), keeping only the inserts
+    private Map<String, Integer> insertShapes(int itemCount) {
+        OrderDto orderDto = new OrderDto();
+        orderDto.setVendorId(vendor.getId());
+        orderDto.setDeliveryAddress("1 Test Street");
+        List<OrderDto.OrderItemDto> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            OrderDto.OrderItemDto itemDto = new OrderDto.OrderItemDto();
+            itemDto.setMenuItemId(menuItems.get(i).getId());
+            itemDto.setQuantity(1 + i % 3);
+            items.add(itemDto);
+        }
+        orderDto.setOrderItems(items);
+
+        RequestSqlStats stats = RequestSqlStats.begin();
+        orderService.createOrder(customer.getId(), orderDto);
+        entityManager.flush();
+        RequestSqlStats.end();
+        entityManager.clear();
+
+        Map<String, Integer> inserts = new TreeMap<>();
+        stats.getShapes().forEach((shape, count) -> {
+            if (shape.startsWith("insert")) {
+                inserts.put(shape, count);
+            }
+        });
+        return inserts;
+    }
+
+    private static int countFor(Map<String, Integer> shapes, String prefix) {
+        return shapes.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(prefix))
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+    }
+}
@@ -0,0 +1,85 @@
+package com.wanderfare.service;
+
+import com.wanderfare.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger hashes = new AtomicInteger();
+    private ThreadPoolTaskExecutor executor;
+    private PasswordHashingService hashingService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(4);
+        executor.initialize();
+
+        // Stands in for BCrypt: runs until released and ignores interrupts
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(anyString())).thenAnswer(invocation -> {
+            hashes.incrementAndGet();
+            while (true) {
+                try {
+                    release.await();
+                    return "hash";
+                } catch (InterruptedException ignored) {
+                }
+            }
+        });
+
+        hashingService = new PasswordHashingService();
+        ReflectionTestUtils.setField(hashingService, "passwordEncoder", encoder);
+        ReflectionTestUtils.setField(hashingService, "passwordHashExecutor", executor);
+        ReflectionTestUtils.setField(hashingService, "timeoutMs", 100L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void timedOutHashLeavesTheQueue() throws Exception {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hashingService.encode("first"));
+        awaitHashes(1);
+
+        assertThatThrownBy(() -> hashingService.encode("second")).isInstanceOf(TooManyRequestsException.class);
+        assertThat(executor.getThreadPoolExecutor().getQueue()).isEmpty();
+
+        release.countDown();
+        assertThatThrownBy(running::join).hasCauseInstanceOf(TooManyRequestsException.class);
+        executor.getThreadPoolExecutor().shutdown();
+        assertThat(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        // The queued hash never ran
+        assertThat(hashes).hasValue(1);
+    }
+
+    private void awaitHashes(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (hashes.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(hashes).hasValue(expected);
+    }
+}
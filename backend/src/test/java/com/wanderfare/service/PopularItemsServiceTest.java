@@ -0,0 +1,136 @@
+package com.wanderfare.service;
+
+import com.wanderfare.event.OrderCreatedEvent;
+import com.wanderfare.model.Customer;
+import com.wanderfare.model.MenuItem;
+import com.wanderfare.model.Order;
+import com.wanderfare.model.OrderItem;
+import com.wanderfare.model.Vendor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A restart must count every order exactly once: orders up to the checkpoint's high-water id come
+ * from the checkpoint, later ones from the replay.
+ */
+@DataJpaTest(properties = "wanderfare.analytics.popular-items.checkpoint-file=target/test-data/popular-items.bin")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(PopularItemsService.class)
+class PopularItemsServiceTest {
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Value("${wanderfare.analytics.popular-items.checkpoint-file}")
+    private String checkpointFile;
+
+    private Customer customer;
+    private Vendor vendor;
+    private MenuItem menuItem;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.deleteIfExists(Paths.get(checkpointFile));
+        String suffix = UUID.randomUUID().toString();
+
+        customer = new Customer();
+        customer.setEmail("popular-customer-" + suffix + "@example.com");
+        customer.setPassword("password");
+        customer.setFirstName("Popular");
+        customer.setLastName("Customer");
+        entityManager.persist(customer);
+
+        vendor = new Vendor();
+        vendor.setEmail("popular-vendor-" + suffix + "@example.com");
+        vendor.setPassword("password");
+        vendor.setFirstName("Popular");
+        vendor.setLastName("Vendor");
+        vendor.setBusinessName("Popular Kitchen");
+        entityManager.persist(vendor);
+
+        menuItem = new MenuItem();
+        menuItem.setName("Pastel de nata");
+        menuItem.setPrice(new BigDecimal("1.20"));
+        menuItem.setVendor(vendor);
+        entityManager.persist(menuItem);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(Paths.get(checkpointFile));
+    }
+
+    @Test
+    void restartCountsEachOrderOnce() {
+        order(2);
+        PopularItemsService before = beanFactory.createBean(PopularItemsService.class);
+        assertThat(quantity(before)).isEqualTo(2);
+
+        before.onOrderCreated(new OrderCreatedEvent(order(3)));
+        before.checkpoint();
+        // Committed after the checkpoint and never seen by this node before it stopped
+        order(5);
+
+        PopularItemsService after = beanFactory.createBean(PopularItemsService.class);
+        assertThat(quantity(after)).isEqualTo(10);
+    }
+
+    @Test
+    void restartWithoutCheckpointReplaysRecentOrders() {
+        order(2);
+        order(3);
+
+        PopularItemsService restarted = beanFactory.createBean(PopularItemsService.class);
+        assertThat(quantity(restarted)).isEqualTo(5);
+    }
+
+    private Order order(int quantity) {
+        Order order = new Order();
+        order.setOrderNumber("POP-" + UUID.randomUUID());
+        order.setCustomer(customer);
+        order.setVendor(vendor);
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setTotalAmount(new BigDecimal("1.20").multiply(BigDecimal.valueOf(quantity)));
+        order.setDeliveryAddress("1 Test Street");
+
+        OrderItem line = new OrderItem();
+        line.setOrder(order);
+        line.setMenuItem(menuItem);
+        line.setQuantity(quantity);
+        line.setUnitPrice(menuItem.getPrice());
+        line.setTotalPrice(order.getTotalAmount());
+        order.getOrderItems().add(line);
+
+        entityManager.persist(order);
+        entityManager.flush();
+        return order;
+    }
+
+    private long quantity(PopularItemsService service) {
+        List<Map<String, Object>> top = service.getPopularItems(vendor.getId(), PopularItemsService.Window.DAY, 5);
+        assertThat(top).hasSize(1);
+        return (Long) top.get(0).get("quantity");
+    }
+}
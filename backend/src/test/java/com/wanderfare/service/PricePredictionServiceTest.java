@@ -0,0 +1,107 @@
+package com.wanderfare.service;
+
+import com.wanderfare.event.OrderCreatedEvent;
+import com.wanderfare.event.OrderStatusChangedEvent;
+import com.wanderfare.model.MenuItem;
+import com.wanderfare.model.MenuItemDailySales;
+import com.wanderfare.model.Order;
+import com.wanderfare.model.OrderItem;
+import com.wanderfare.model.Vendor;
+import com.wanderfare.repository.MenuItemDailySalesRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(PricePredictionService.class)
+class PricePredictionServiceTest {
+
+    private static final long VENDOR_ID = 9001L;
+
+    @Autowired
+    private PricePredictionService predictionService;
+
+    @Autowired
+    private MenuItemDailySalesRepository salesRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean(name = "analyticsExecutor")
+    private ThreadPoolTaskExecutor analyticsExecutor;
+
+    @Test
+    void orderLinesAreSummedPerItem() {
+        predictionService.onOrderCreated(new OrderCreatedEvent(order()));
+
+        assertThat(sales()).isEqualTo(Map.of(1L, 3L, 2L, 1L));
+
+        // A second order the same day adds to the existing rows
+        predictionService.onOrderCreated(new OrderCreatedEvent(order()));
+        assertThat(sales()).isEqualTo(Map.of(1L, 6L, 2L, 2L));
+    }
+
+    @Test
+    void cancellationTakesTheOrderBackOut() {
+        Order order = order();
+        predictionService.onOrderCreated(new OrderCreatedEvent(order));
+        order.setStatus(Order.OrderStatus.CANCELLED);
+        predictionService.onOrderStatusChanged(new OrderStatusChangedEvent(order, Order.OrderStatus.PENDING, false));
+
+        assertThat(sales()).isEqualTo(Map.of(1L, 0L, 2L, 0L));
+        assertThat(salesRepository.findByVendorSince(VENDOR_ID, LocalDate.now()))
+                .extracting(MenuItemDailySales::getRevenue)
+                .allMatch(revenue -> revenue.signum() == 0);
+    }
+
+    // The upserts bypass the persistence context, so drop any rows it still holds from a prior read
+    private Map<Long, Long> sales() {
+        entityManager.clear();
+        Map<Long, Long> quantities = new HashMap<>();
+        for (MenuItemDailySales row : salesRepository.findByVendorSince(VENDOR_ID, LocalDate.now())) {
+            quantities.put(row.getMenuItemId(), row.getQuantity());
+        }
+        return quantities;
+    }
+
+    // Item 1 appears on two lines, as when a customer adds it twice with different instructions
+    private static Order order() {
+        Vendor vendor = new Vendor();
+        vendor.setId(VENDOR_ID);
+        Order order = new Order();
+        order.setVendor(vendor);
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setCreatedAt(LocalDateTime.now());
+        order.getOrderItems().add(line(order, 1L, 2, "8.00"));
+        order.getOrderItems().add(line(order, 2L, 1, "5.50"));
+        order.getOrderItems().add(line(order, 1L, 1, "4.00"));
+        return order;
+    }
+
+    private static OrderItem line(Order order, Long menuItemId, int quantity, String totalPrice) {
+        MenuItem menuItem = new MenuItem();
+        menuItem.setId(menuItemId);
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setMenuItem(menuItem);
+        item.setQuantity(quantity);
+        item.setTotalPrice(new BigDecimal(totalPrice));
+        return item;
+    }
+}
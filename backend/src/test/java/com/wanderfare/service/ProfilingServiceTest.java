@@ -0,0 +1,77 @@
+package com.wanderfare.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProfilingServiceTest {
+
+    private ProfilingService profilingService;
+
+    @BeforeEach
+    void setUp() {
+        profilingService = new ProfilingService();
+        ReflectionTestUtils.setField(profilingService, "maxDurationSeconds", 600L);
+        ReflectionTestUtils.setField(profilingService, "maxSizeMb", 10L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (profilingService.getStatus().containsKey("name")) {
+            Files.deleteIfExists(profilingService.stopRecording());
+        }
+    }
+
+    @Test
+    void secondStartIsRejectedWhileRecording() {
+        profilingService.startRecording(60L);
+
+        assertThat(profilingService.getStatus()).containsEntry("active", true).containsEntry("state", "RUNNING");
+        assertThatThrownBy(() -> profilingService.startRecording(60L))
+                .hasMessage("A recording is already in progress");
+    }
+
+    @Test
+    void recordingThatReachedItsDurationFreesTheSlot() throws Exception {
+        profilingService.startRecording(1L);
+        awaitState("STOPPED");
+
+        assertThat(profilingService.getStatus()).containsEntry("active", false);
+
+        Map<String, Object> restarted = profilingService.startRecording(60L);
+        assertThat(profilingService.getStatus())
+                .containsEntry("active", true)
+                .containsEntry("name", restarted.get("name"));
+    }
+
+    @Test
+    void stopDumpsTheRecording() throws Exception {
+        profilingService.startRecording(60L);
+
+        Path file = profilingService.stopRecording();
+        try {
+            assertThat(Files.size(file)).isPositive();
+            assertThat(profilingService.getStatus()).containsEntry("active", false).doesNotContainKey("name");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void awaitState(String state) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!state.equals(profilingService.getStatus().get("state"))) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Recording never reached " + state + ": " + profilingService.getStatus());
+            }
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.wanderfare.service;
+
+import com.wanderfare.config.ModelMapperConfig;
+import com.wanderfare.dto.MenuItemDto;
+import com.wanderfare.event.OrderCreatedEvent;
+import com.wanderfare.event.OrderStatusChangedEvent;
+import com.wanderfare.model.MenuItem;
+import com.wanderfare.model.Order;
+import com.wanderfare.model.Vendor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Rollup upserts run on every order, so they must not disturb the second-level or query caches,
+ * while menu writes made through the services still show up in the cached public menu. Each step
+ * commits on its own, as it would in production, since cache puts and evictions only settle at commit.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({RevenueRollupService.class, MenuItemService.class, MenuImportService.class, ModelMapperConfig.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RevenueRollupServiceTest {
+
+    @Autowired
+    private RevenueRollupService rollupService;
+
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Autowired
+    private MenuImportService menuImportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private Statistics statistics;
+    private Vendor vendor;
+    private MenuItemDto menuItem;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        String suffix = UUID.randomUUID().toString();
+        tx.executeWithoutResult(status -> {
+            vendor = new Vendor();
+            vendor.setEmail("rollup-" + suffix + "@example.com");
+            vendor.setPassword("password");
+            vendor.setFirstName("Rollup");
+            vendor.setLastName("Vendor");
+            vendor.setBusinessName("Rollup Kitchen");
+            vendor.setCity("Lisbon");
+            entityManager.persist(vendor);
+        });
+        menuItem = menuItemService.createMenuItem(vendor.getId(), item("Bifana", "4.50"));
+        // Warm the entity region and the cached public menu query
+        menuItemService.getMenuItemsByVendor(vendor.getId());
+    }
+
+    @Test
+    void rollupUpsertKeepsCachedEntitiesAndQueries() {
+        tx.executeWithoutResult(status -> rollupService.onOrderCreated(new OrderCreatedEvent(order())));
+
+        assertThat(entityManagerFactory.getCache().contains(MenuItem.class, menuItem.getId())).isTrue();
+
+        statistics.clear();
+        menuItemService.getMenuItemsByVendor(vendor.getId());
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getQueryCacheMissCount()).isZero();
+    }
+
+    @Test
+    void updatedItemShowsInCachedMenu() {
+        menuItem.setPrice(new BigDecimal("5.00"));
+        menuItemService.updateMenuItem(menuItem.getId(), menuItem);
+
+        statistics.clear();
+        List<MenuItemDto> menu = menuItemService.getMenuItemsByVendor(vendor.getId());
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+        assertThat(menu).extracting(MenuItemDto::getPrice).containsExactly(new BigDecimal("5.00"));
+    }
+
+    @Test
+    void createdItemShowsInCachedMenu() {
+        menuItemService.createMenuItem(vendor.getId(), item("Prego", "6.00"));
+
+        List<MenuItemDto> menu = menuItemService.getMenuItemsByVendor(vendor.getId());
+        assertThat(menu).extracting(MenuItemDto::getName).containsExactlyInAnyOrder("Bifana", "Prego");
+    }
+
+    @Test
+    void deletedItemLeavesCachedMenu() {
+        menuItemService.deleteMenuItem(menuItem.getId());
+
+        assertThat(menuItemService.getMenuItemsByVendor(vendor.getId())).isEmpty();
+        assertThat(menuItemService.getMenuItemById(menuItem.getId())).isEmpty();
+    }
+
+    @Test
+    void importedItemsShowInCachedMenu() throws Exception {
+        String csv = "name,price\nBifana,4.80\nPrego,6.00\n";
+        menuImportService.importMenu(vendor.getId(), MenuImportService.Format.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        List<MenuItemDto> menu = menuItemService.getMenuItemsByVendor(vendor.getId());
+        assertThat(menu).extracting(MenuItemDto::getName, MenuItemDto::getPrice).containsExactlyInAnyOrder(
+                tuple("Bifana", new BigDecimal("4.80")),
+                tuple("Prego", new BigDecimal("6.00")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void statusChangeMovesOrderBetweenStatuses() {
+        Order order = order();
+        tx.executeWithoutResult(status -> rollupService.onOrderCreated(new OrderCreatedEvent(order)));
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        tx.executeWithoutResult(status -> rollupService.onOrderStatusChanged(
+                new OrderStatusChangedEvent(order, Order.OrderStatus.PENDING, false)));
+
+        LocalDateTime day = order.getCreatedAt();
+        Map<String, Object> summary = rollupService.getRevenueSummary(vendor.getId(), day, day);
+        Map<String, Long> breakdown = (Map<String, Long>) summary.get("orderStatusBreakdown");
+        assertThat(breakdown.get("PENDING")).isZero();
+        assertThat(breakdown.get("CONFIRMED")).isEqualTo(1L);
+        assertThat(summary.get("totalRevenue")).isEqualTo(new BigDecimal("12.00"));
+    }
+
+    private MenuItemDto item(String name, String price) {
+        MenuItemDto dto = new MenuItemDto();
+        dto.setName(name);
+        dto.setPrice(new BigDecimal(price));
+        return dto;
+    }
+
+    private Order order() {
+        Order order = new Order();
+        order.setVendor(vendor);
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setFinalAmount(new BigDecimal("12.00"));
+        order.setCreatedAt(LocalDateTime.now());
+        return order;
+    }
+}
@@ -0,0 +1,172 @@
+package com.wanderfare.service;
+
+import com.wanderfare.event.VendorChangedEvent;
+import com.wanderfare.model.Vendor;
+import com.wanderfare.repository.VendorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VendorAvailabilityIndexTest {
+
+    private final VendorAvailabilityIndex index = new VendorAvailabilityIndex();
+    private final VendorRepository vendorRepository = mock(VendorRepository.class);
+    private final List<Vendor> vendors = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(vendorRepository.findApprovedAndActive()).thenReturn(vendors);
+        ReflectionTestUtils.setField(index, "vendorRepository", vendorRepository);
+        ReflectionTestUtils.setField(index, "bucketMinutes", 15);
+        ReflectionTestUtils.setField(index, "timeZone", "");
+    }
+
+    @Test
+    void openingIsInclusiveAndClosingExclusiveInsideABucket() {
+        // 09:07-17:52: both ends fall inside a 15-minute bucket
+        vendors.add(vendor(1L, "09:07", "17:52"));
+        index.init();
+
+        assertThat(openAt("09:06")).isEmpty();
+        assertThat(openAt("09:07")).containsExactly(1L);
+        assertThat(openAt("12:00")).containsExactly(1L);
+        assertThat(openAt("17:51")).containsExactly(1L);
+        assertThat(openAt("17:52")).isEmpty();
+    }
+
+    @Test
+    void hoursOnBucketBoundaries() {
+        vendors.add(vendor(1L, "09:00", "17:00"));
+        index.init();
+
+        assertThat(openAt("08:59")).isEmpty();
+        assertThat(openAt("09:00")).containsExactly(1L);
+        assertThat(openAt("16:59")).containsExactly(1L);
+        assertThat(openAt("17:00")).isEmpty();
+    }
+
+    @Test
+    void closingEarlierThanOpeningWrapsPastMidnight() {
+        vendors.add(vendor(1L, "18:10", "02:20"));
+        vendors.add(vendor(2L, "22:00", "00:00"));
+        index.init();
+
+        assertThat(openAt("18:09")).isEmpty();
+        assertThat(openAt("18:10")).containsExactly(1L);
+        assertThat(openAt("21:59")).containsExactly(1L);
+        assertThat(openAt("22:00")).containsExactly(1L, 2L);
+        assertThat(openAt("23:59")).containsExactly(1L, 2L);
+        assertThat(openAt("00:00")).containsExactly(1L);
+        assertThat(openAt("02:19")).containsExactly(1L);
+        assertThat(openAt("02:20")).isEmpty();
+        assertThat(openAt("12:00")).isEmpty();
+    }
+
+    @Test
+    void closedGapInsideOneBucket() {
+        // Closed only from 00:05 to 00:10, both within the first bucket
+        vendors.add(vendor(1L, "00:10", "00:05"));
+        index.init();
+
+        assertThat(openAt("00:04")).containsExactly(1L);
+        assertThat(openAt("00:05")).isEmpty();
+        assertThat(openAt("00:09")).isEmpty();
+        assertThat(openAt("00:10")).containsExactly(1L);
+        assertThat(openAt("13:00")).containsExactly(1L);
+    }
+
+    @Test
+    void equalTimesOrNoHoursMeanOpenAllDay() {
+        vendors.add(vendor(1L, "10:00", "10:00"));
+        vendors.add(vendor(2L, null, null));
+        index.init();
+
+        assertThat(openAt("00:00")).containsExactly(1L, 2L);
+        assertThat(openAt("10:00")).containsExactly(1L, 2L);
+        assertThat(openAt("23:59")).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void unevenBucketSizeCoversTheEndOfTheDay() {
+        ReflectionTestUtils.setField(index, "bucketMinutes", 25);
+        vendors.add(vendor(1L, "23:50", "00:00"));
+        index.init();
+
+        assertThat(openAt("23:49")).isEmpty();
+        assertThat(openAt("23:50")).containsExactly(1L);
+        assertThat(openAt("23:59")).containsExactly(1L);
+    }
+
+    @Test
+    void filtersByCityCuisineAndRating() {
+        vendors.add(vendor(1L, null, null));
+        Vendor porto = vendor(2L, null, null);
+        porto.setCity("Porto");
+        porto.setCuisineType("Seafood");
+        porto.setRating(new BigDecimal("4.5"));
+        vendors.add(porto);
+        index.init();
+
+        assertThat(index.findOpenVendorIds(" porto ", null, null, 600)).containsExactly(2L);
+        assertThat(index.findOpenVendorIds(null, "SEAFOOD", null, 600)).containsExactly(2L);
+        assertThat(index.findOpenVendorIds("Porto", "Pizza", null, 600)).isEmpty();
+        assertThat(index.findOpenVendorIds(null, null, new BigDecimal("4.5"), 600)).containsExactly(2L);
+        assertThat(index.findOpenVendorIds(null, null, new BigDecimal("4.6"), 600)).isEmpty();
+    }
+
+    @Test
+    void changesCommittedDuringAReloadSurviveIt() {
+        Vendor closing = vendor(1L, null, null);
+        vendors.add(closing);
+        index.init();
+        Vendor opened = vendor(2L, null, null);
+
+        // The reload reads vendor 1 as listed and misses vendor 2; both changes commit meanwhile
+        when(vendorRepository.findApprovedAndActive()).thenAnswer(invocation -> {
+            List<Vendor> stale = List.of(vendor(1L, null, null));
+            closing.setIsActive(false);
+            index.onVendorChanged(new VendorChangedEvent(closing));
+            index.onVendorChanged(new VendorChangedEvent(opened));
+            return stale;
+        });
+        index.reload();
+
+        assertThat(openAt("12:00")).containsExactly(2L);
+    }
+
+    @Test
+    void changesAfterAReloadAreNotReplayedByTheNextOne() {
+        index.init();
+        index.onVendorChanged(new VendorChangedEvent(vendor(3L, null, null)));
+        assertThat(openAt("12:00")).containsExactly(3L);
+
+        // Vendor 3 was unlisted on another node; the reload is authoritative
+        index.reload();
+
+        assertThat(openAt("12:00")).isEmpty();
+    }
+
+    private List<Long> openAt(String time) {
+        LocalTime now = LocalTime.parse(time);
+        return index.findOpenVendorIds(null, null, null, now.getHour() * 60 + now.getMinute());
+    }
+
+    private static Vendor vendor(Long id, String opens, String closes) {
+        Vendor vendor = new Vendor();
+        vendor.setId(id);
+        vendor.setIsApproved(true);
+        vendor.setIsActive(true);
+        vendor.setOpeningTime(opens != null ? LocalTime.parse(opens) : null);
+        vendor.setClosingTime(closes != null ? LocalTime.parse(closes) : null);
+        return vendor;
+    }
+}
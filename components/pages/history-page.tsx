@@ -46,16 +46,16 @@ export function HistoryPage() {
   const [orders, setOrders] = useState<Order[]>([])
   const [loading, setLoading] = useState(true)
   const [error, setError] = useState("")
-  const [currentPage, setCurrentPage] = useState(0)
+  const [nextCursor, setNextCursor] = useState<string | null>(null)
   const [hasMore, setHasMore] = useState(true)
   const [reorderingId, setReorderingId] = useState<number | null>(null)
 
-  const loadOrders = async (page = 0, append = false) => {
+  const loadOrders = async (cursor: string | null = null, append = false) => {
     try {
       setLoading(true)
       setError("")
 
-      const response = await apiClient.getCustomerOrders(page, 10)
+      const response = await apiClient.getCustomerOrders(cursor, 10)
       const newOrders = response.content || []
 
       if (append) {
@@ -64,7 +64,8 @@ export function HistoryPage() {
         setOrders(newOrders)
       }
 
-      setHasMore(newOrders.length === 10)
+      setHasMore(response.hasNext)
+      setNextCursor(response.nextCursor)
     } catch (err: any) {
       console.error("Failed to load orders:", err)
       setError("Failed to load order history. Please try again.")
@@ -94,9 +95,7 @@ export function HistoryPage() {
   }
 
   const loadMoreOrders = () => {
-    const nextPage = currentPage + 1
-    setCurrentPage(nextPage)
-    loadOrders(nextPage, true)
+    loadOrders(nextCursor, true)
   }
 
   if (!isAuthenticated) {
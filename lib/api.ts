@@ -159,6 +159,14 @@ class ApiClient {
   }
 
   logout(): void {
+    // Revoke the token server-side; fire-and-forget so local logout never waits on the network
+    const token = localStorage.getItem('auth_token');
+    if (token) {
+      fetch(`${API_BASE_URL}/auth/logout`, {
+        method: 'POST',
+        headers: { Authorization: `Bearer ${token}` },
+      }).catch(() => {});
+    }
     localStorage.removeItem('auth_token');
     localStorage.removeItem('user_data');
     localStorage.clear();
@@ -243,8 +251,9 @@ class ApiClient {
     });
   }
 
-  async getCustomerOrders(page = 0, size = 10): Promise<{ content: Order[] }> {
-    return this.request(`/orders/customer/my-orders?page=${page}&size=${size}`);
+  async getCustomerOrders(cursor?: string | null, size = 10): Promise<{ content: Order[]; hasNext: boolean; nextCursor: string | null }> {
+    const cursorParam = cursor ? `&cursor=${encodeURIComponent(cursor)}` : '';
+    return this.request(`/orders/customer/my-orders?size=${size}${cursorParam}`);
   }
 
   async getOrderById(orderId: number): Promise<Order> {
@@ -280,8 +289,9 @@ class ApiClient {
     return this.updateVendorProfile(profileData);
   }
 
-  async getVendorOrders(page = 0, size = 10): Promise<{ content: Order[] }> {
-    return this.request(`/orders/vendor/my-orders?page=${page}&size=${size}`);
+  async getVendorOrders(cursor?: string | null, size = 10): Promise<{ content: Order[]; hasNext: boolean; nextCursor: string | null }> {
+    const cursorParam = cursor ? `&cursor=${encodeURIComponent(cursor)}` : '';
+    return this.request(`/orders/vendor/my-orders?size=${size}${cursorParam}`);
   }
 
   async updateOrderStatus(orderId: number, status: string): Promise<Order> {